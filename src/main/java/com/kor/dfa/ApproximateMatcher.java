@@ -0,0 +1,200 @@
+package com.kor.dfa;
+
+import java.util.Arrays;
+
+/**
+ * Matches strings that are within a number of edits of being accepted by a DFA.
+ * An edit is inserting, deleting or substituting one character.
+ *
+ * Walks the product of the DFA and a Levenshtein automaton: after each character of
+ * the input it keeps the fewest edits needed to reach every DFA state, dropping states
+ * that need more than the limit. Only states within the limit are visited, so for a
+ * small limit a match is a single pass over the input.
+ * Not safe to share between threads, use one matcher per thread.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see CompiledDFA
+ */
+public class ApproximateMatcher {
+    private static final int UNREACHED = Integer.MAX_VALUE; // Cost of a state that is not reached
+
+    private final CompiledDFA dfa; // The DFA to match against
+    private final int maxDistance; // The most edits allowed
+    private final int columns; // Columns of the DFA
+
+    // The states reached after the current prefix, and the fewest edits to reach each one.
+    // Every cost is UNREACHED between matches.
+    private int[] cost;
+    private int[] active;
+    private int count = 0;
+    // The same for the next prefix
+    private int[] nextCost;
+    private int[] nextActive;
+    private int nextCount = 0;
+    // States by cost, for adding insertions in order of cost
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+
+    /**
+     * Creates a matcher for a DFA.
+     * @param dfa The DFA to match against
+     * @param maxDistance The most edits allowed
+     */
+    public ApproximateMatcher(DFA dfa, int maxDistance) {
+        this(dfa.compile(), maxDistance);
+    }
+
+    /**
+     * Creates a matcher for a compiled DFA.
+     * @param dfa The DFA to match against
+     * @param maxDistance The most edits allowed
+     */
+    public ApproximateMatcher(CompiledDFA dfa, int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("The distance must not be negative.");
+        }
+        this.dfa = dfa;
+        this.maxDistance = maxDistance;
+        columns = dfa.getColumnCount();
+        int states = dfa.getStateCount();
+        cost = new int[states];
+        nextCost = new int[states];
+        Arrays.fill(cost, UNREACHED);
+        Arrays.fill(nextCost, UNREACHED);
+        active = new int[states];
+        nextActive = new int[states];
+        buckets = new int[maxDistance + 1][16];
+        bucketSizes = new int[maxDistance + 1];
+    }
+
+    /**
+     * Returns the fewest edits that make the string accepted.
+     * @param input The string to be tested
+     * @return The number of edits, or -1 if more than the limit are needed
+     */
+    public int distance(CharSequence input) {
+        count = 0;
+        reach(dfa.getStartState(), 0);
+        addInsertions();
+
+        for (int i = 0; i < input.length(); i++) {
+            int column = dfa.columnOf(input.charAt(i));
+            nextCount = 0;
+            for (int j = 0; j < count; j++) {
+                int s = active[j];
+                int d = cost[s];
+                if (d < maxDistance) {
+                    // Delete the character
+                    reachNext(s, d + 1);
+                }
+                for (int c = 0; c < columns; c++) {
+                    int t = dfa.next(s, c);
+                    if (t == CompiledDFA.DEAD) {
+                        continue;
+                    }
+                    // Keep the character, or substitute it
+                    if (c == column) {
+                        reachNext(t, d);
+                    } else if (d < maxDistance) {
+                        reachNext(t, d + 1);
+                    }
+                }
+            }
+
+            for (int j = 0; j < count; j++) {
+                cost[active[j]] = UNREACHED;
+            }
+            int[] swap = cost;
+            cost = nextCost;
+            nextCost = swap;
+            swap = active;
+            active = nextActive;
+            nextActive = swap;
+            count = nextCount;
+            if (count == 0) {
+                return -1;
+            }
+            addInsertions();
+        }
+
+        int best = UNREACHED;
+        for (int j = 0; j < count; j++) {
+            int s = active[j];
+            if (dfa.isAccepting(s)) {
+                best = Math.min(best, cost[s]);
+            }
+            cost[s] = UNREACHED;
+        }
+        count = 0;
+        return best == UNREACHED ? -1 : best;
+    }
+
+    /**
+     * Returns true if the string is within the limit of edits of being accepted.
+     * @param input The string to be tested
+     * @return True if the string is accepted, else false
+     */
+    public boolean matches(CharSequence input) {
+        return distance(input) >= 0;
+    }
+
+    /**
+     * Returns the most edits allowed.
+     * @return The most edits allowed
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Inserting characters moves along the DFA without reading input. Each insertion
+     * costs one edit, so states are expanded in order of cost, like a breadth first search
+     * that starts from every reached state at once.
+     */
+    private void addInsertions() {
+        Arrays.fill(bucketSizes, 0);
+        for (int j = 0; j < count; j++) {
+            addToBucket(cost[active[j]], active[j]);
+        }
+        for (int d = 0; d < maxDistance; d++) {
+            int[] bucket = buckets[d];
+            for (int j = 0; j < bucketSizes[d]; j++) {
+                int s = bucket[j];
+                if (cost[s] != d) {
+                    continue; // Reached more cheaply since it was added
+                }
+                for (int c = 0; c < columns; c++) {
+                    int t = dfa.next(s, c);
+                    if (t != CompiledDFA.DEAD && cost[t] > d + 1) {
+                        reach(t, d + 1);
+                        addToBucket(d + 1, t);
+                    }
+                }
+            }
+        }
+    }
+
+    private void reach(int s, int d) {
+        if (cost[s] == UNREACHED) {
+            active[count++] = s;
+        }
+        cost[s] = d;
+    }
+
+    private void reachNext(int s, int d) {
+        if (nextCost[s] == UNREACHED) {
+            nextActive[nextCount++] = s;
+            nextCost[s] = d;
+        } else if (d < nextCost[s]) {
+            nextCost[s] = d;
+        }
+    }
+
+    private void addToBucket(int d, int s) {
+        if (bucketSizes[d] == buckets[d].length) {
+            buckets[d] = Arrays.copyOf(buckets[d], buckets[d].length * 2);
+        }
+        buckets[d][bucketSizes[d]++] = s;
+    }
+}
@@ -0,0 +1,207 @@
+package com.kor.dfa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * An immutable, table driven snapshot of a DFA.
+ * States are numbered from 0 (the start state) and every transition is a single
+ * array lookup, instead of a scan of the node's pointers. Only states reachable
+ * from the start node are included.
+ * Safe to share between threads; later changes to the DFA are not seen.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFA#compile()
+ */
+public class CompiledDFA {
+    public static final int DEAD = -1; // The state reached by a missing transition
+
+    private final String name; // The name of the DFA this was compiled from
+    private final int[] columnOf; // Character -> column of the table, -1 if no transition uses it
+    private final char[] characters; // Column -> character
+    private final int[] table; // state * columns + column -> next state, or DEAD
+    private final boolean[] accepting; // state -> accepting
+    private final Node[] nodes; // state -> the node it was compiled from
+
+    /**
+     * Compiles a DFA.
+     * @param dfa The DFA to compile
+     */
+    public CompiledDFA(DFA dfa) {
+        if (dfa.getStartNode() == null) {
+            throw new IllegalStateException("The DFA has no start node.");
+        }
+        this.name = dfa.getName();
+
+        // Number the reachable nodes in breadth first order, collecting the characters used
+        IdentityHashMap<Node, Integer> stateOf = new IdentityHashMap<>();
+        ArrayList<Node> order = new ArrayList<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>();
+        int maxChar = -1;
+        stateOf.put(dfa.getStartNode(), 0);
+        order.add(dfa.getStartNode());
+        queue.add(dfa.getStartNode());
+        StringBuilder used = new StringBuilder();
+        boolean[] seen = new boolean[Character.MAX_VALUE + 1];
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Pointers pointer : node.getPointers()) {
+                char c = pointer.getName();
+                if (!seen[c]) {
+                    seen[c] = true;
+                    used.append(c);
+                    maxChar = Math.max(maxChar, c);
+                }
+                Node next = pointer.getNextNode();
+                if (!stateOf.containsKey(next)) {
+                    stateOf.put(next, order.size());
+                    order.add(next);
+                    queue.add(next);
+                }
+            }
+        }
+
+        characters = used.toString().toCharArray();
+        columnOf = new int[maxChar + 1];
+        Arrays.fill(columnOf, -1);
+        for (int i = 0; i < characters.length; i++) {
+            columnOf[characters[i]] = i;
+        }
+
+        int states = order.size();
+        int columns = characters.length;
+        nodes = order.toArray(new Node[0]);
+        accepting = new boolean[states];
+        table = new int[states * columns];
+        Arrays.fill(table, DEAD);
+        for (int state = 0; state < states; state++) {
+            accepting[state] = nodes[state].isAcceptingState();
+            // Walk the pointers backwards so the first pointer for a character wins, like Node.nextNode
+            ArrayList<Pointers> pointers = nodes[state].getPointers();
+            for (int i = pointers.size() - 1; i >= 0; i--) {
+                Pointers pointer = pointers.get(i);
+                table[state * columns + columnOf[pointer.getName()]] = stateOf.get(pointer.getNextNode());
+            }
+        }
+    }
+
+    /**
+     * Returns true if the string is accepted, starting from the start state.
+     * @param input The string to be tested
+     * @return True if the string is accepted, else false
+     */
+    public boolean matches(CharSequence input) {
+        int[] columnOf = this.columnOf;
+        int[] table = this.table;
+        int columns = characters.length;
+        int state = 0;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            char c = input.charAt(i);
+            if (c >= columnOf.length) {
+                return false;
+            }
+            int column = columnOf[c];
+            if (column < 0) {
+                return false;
+            }
+            state = table[state * columns + column];
+            if (state == DEAD) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    /**
+     * Gets the state reached from a state on a character.
+     * @param state The current state
+     * @param c The character
+     * @return The next state, or DEAD if there is no transition
+     */
+    public int step(int state, char c) {
+        if (c >= columnOf.length || columnOf[c] < 0) {
+            return DEAD;
+        }
+        return table[state * characters.length + columnOf[c]];
+    }
+
+    /**
+     * Gets the state reached from a state on the character of a column.
+     * @param state The current state
+     * @param column The column of the character
+     * @return The next state, or DEAD if there is no transition
+     */
+    public int next(int state, int column) {
+        return table[state * characters.length + column];
+    }
+
+    /**
+     * Gets the column of a character.
+     * @param c The character
+     * @return The column, or -1 if no transition uses the character
+     */
+    public int columnOf(char c) {
+        return c < columnOf.length ? columnOf[c] : -1;
+    }
+
+    /**
+     * Gets the characters used by transitions, indexed by column.
+     * @return The characters used by transitions
+     */
+    public char[] getCharacters() {
+        return characters.clone();
+    }
+
+    /**
+     * Returns true if the state is an accepting state.
+     * @param state The state
+     * @return True if the state is an accepting state, else false
+     */
+    public boolean isAccepting(int state) {
+        return accepting[state];
+    }
+
+    /**
+     * Gets the start state, which is always 0.
+     * @return The start state
+     */
+    public int getStartState() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of states.
+     * @return The number of states
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    /**
+     * Gets the number of columns, which is the number of distinct transition characters.
+     * @return The number of columns
+     */
+    public int getColumnCount() {
+        return characters.length;
+    }
+
+    /**
+     * Gets the node a state was compiled from.
+     * @param state The state
+     * @return The node
+     */
+    public Node getNode(int state) {
+        return nodes[state];
+    }
+
+    /**
+     * Gets the name of the DFA this was compiled from.
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+}
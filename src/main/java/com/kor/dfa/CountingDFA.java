@@ -0,0 +1,375 @@
+package com.kor.dfa;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A DFA extended with counters, for bounded repetition such as "between 3 and 500 digits"
+ * without one state per repetition.
+ *
+ * Transitions can have a guard, which must hold for the transition to be taken, and an
+ * update, which increments or resets a counter when it is taken. A state can have several
+ * transitions on the same character as long as they have guards; the first one added
+ * whose guard holds is taken. Accepting states can also have a guard that must hold at
+ * the end of the input.
+ *
+ * Counters only count up to one more than the largest bound any guard compares them to,
+ * so there are finitely many configurations and a small CountingDFA can be expanded into
+ * a plain DFA with toDFA().
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFA, DFABuilder
+ */
+public class CountingDFA {
+    /**
+     * A condition on a counter: min <= counter <= max.
+     */
+    public static final class Guard {
+        final int counter;
+        final int min;
+        final int max;
+
+        private Guard(int counter, int min, int max) {
+            this.counter = counter;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * A guard that holds when min <= counter <= max.
+         */
+        public static Guard between(int counter, int min, int max) {
+            if (min > max || min < 0) {
+                throw new IllegalArgumentException("Invalid bounds " + min + ".." + max + ".");
+            }
+            return new Guard(counter, min, max);
+        }
+
+        /**
+         * A guard that holds when counter < max.
+         */
+        public static Guard below(int counter, int max) {
+            return between(counter, 0, max - 1);
+        }
+
+        /**
+         * A guard that holds when counter >= min.
+         */
+        public static Guard atLeast(int counter, int min) {
+            return between(counter, min, Integer.MAX_VALUE);
+        }
+
+        boolean holds(int[] values) {
+            int value = values[counter];
+            return value >= min && value <= max;
+        }
+    }
+
+    /**
+     * A change to a counter made when a transition is taken.
+     */
+    public static final class Update {
+        final int counter;
+        final boolean reset; // True to set the counter to 0, false to add 1
+
+        private Update(int counter, boolean reset) {
+            this.counter = counter;
+            this.reset = reset;
+        }
+
+        public static Update increment(int counter) {
+            return new Update(counter, false);
+        }
+
+        public static Update reset(int counter) {
+            return new Update(counter, true);
+        }
+    }
+
+    private static final class Transition {
+        final char name;
+        final int to; // Index of the target state
+        final Guard guard; // Null if always taken
+        final Update[] updates;
+
+        Transition(char name, int to, Guard guard, Update[] updates) {
+            this.name = name;
+            this.to = to;
+            this.guard = guard;
+            this.updates = updates;
+        }
+    }
+
+    private final HashMap<Integer, Integer> indexOf = new HashMap<>(); // State ID -> index
+    private final ArrayList<Integer> ids = new ArrayList<>(); // Index -> state ID
+    private final ArrayList<Boolean> accepting = new ArrayList<>(); // Index -> accepting
+    private final ArrayList<Guard> acceptGuards = new ArrayList<>(); // Index -> guard at the end, or null
+    private final ArrayList<ArrayList<Transition>> transitions = new ArrayList<>(); // Index -> transitions
+    private int[] caps = new int[0]; // Counter -> the value it saturates at
+    private Integer start = null; // Index of the start state
+
+    /**
+     * Adds a counter, starting at 0.
+     * @return The index of the counter
+     */
+    public int addCounter() {
+        caps = Arrays.copyOf(caps, caps.length + 1);
+        return caps.length - 1;
+    }
+
+    /**
+     * Adds a state, or updates its accepting state if it exists.
+     * @param id The ID of the state
+     * @param isAccepting True if the state is an accepting state
+     * @return This automaton
+     */
+    public CountingDFA addState(int id, boolean isAccepting) {
+        Integer index = indexOf.get(id);
+        if (index == null) {
+            indexOf.put(id, ids.size());
+            ids.add(id);
+            accepting.add(isAccepting);
+            acceptGuards.add(null);
+            transitions.add(new ArrayList<>());
+        } else {
+            accepting.set(index, isAccepting);
+        }
+        return this;
+    }
+
+    /**
+     * Makes a state accepting only when a guard holds at the end of the input.
+     * @param id The ID of the state
+     * @param guard The guard
+     * @return This automaton
+     */
+    public CountingDFA setAcceptGuard(int id, Guard guard) {
+        int index = index(id);
+        checkCounter(guard.counter);
+        accepting.set(index, true);
+        acceptGuards.set(index, guard);
+        widenCap(guard);
+        return this;
+    }
+
+    /**
+     * Sets the start state.
+     * @param id The ID of the state
+     * @return This automaton
+     */
+    public CountingDFA setStart(int id) {
+        start = index(id);
+        return this;
+    }
+
+    /**
+     * Adds a transition that is always taken.
+     * @return This automaton
+     */
+    public CountingDFA addTransition(int from, char name, int to) {
+        return addTransition(from, name, to, null);
+    }
+
+    /**
+     * Adds a transition.
+     * @param from The ID of the source state
+     * @param name The character of the transition
+     * @param to The ID of the destination state
+     * @param guard The guard that must hold for the transition to be taken, or null
+     * @param updates The counter updates made when the transition is taken
+     * @return This automaton
+     * @throws IllegalArgumentException If the transition could never be taken because an earlier
+     *                                  transition on the same character has no guard
+     */
+    public CountingDFA addTransition(int from, char name, int to, Guard guard, Update... updates) {
+        int source = index(from);
+        int target = index(to);
+        for (Transition existing : transitions.get(source)) {
+            if (existing.name == name && existing.guard == null) {
+                throw new IllegalArgumentException("Node " + from + " already has an unguarded transition on '"
+                        + name + "'.");
+            }
+        }
+        if (guard != null) {
+            checkCounter(guard.counter);
+            widenCap(guard);
+        }
+        for (Update update : updates) {
+            checkCounter(update.counter);
+        }
+        transitions.get(source).add(new Transition(name, target, guard, updates));
+        return this;
+    }
+
+    /**
+     * Returns true if the string is accepted.
+     * @param input The string to be tested
+     * @return True if the string is accepted, else false
+     */
+    public boolean matches(CharSequence input) {
+        if (start == null) {
+            throw new IllegalStateException("No start state was set.");
+        }
+        int[] values = new int[caps.length];
+        int state = start;
+        for (int i = 0; i < input.length(); i++) {
+            state = step(state, input.charAt(i), values);
+            if (state < 0) {
+                return false;
+            }
+        }
+        return isAccepting(state, values);
+    }
+
+    /**
+     * Expands the automaton into a plain DFA, with one node for every reachable
+     * combination of state and counter values.
+     * @param maxStates The most nodes the DFA may have
+     * @return The DFA, or null if it would need more than maxStates nodes
+     */
+    public DFA toDFA(int maxStates) {
+        if (start == null) {
+            throw new IllegalStateException("No start state was set.");
+        }
+        char[] characters = usedCharacters();
+        HashMap<Configuration, Integer> numbers = new HashMap<>();
+        ArrayDeque<Configuration> queue = new ArrayDeque<>();
+        DFABuilder builder = new DFABuilder().setStart(0);
+        if (characters.length > 0) {
+            builder.setAlphabet(new String(characters));
+        }
+
+        Configuration first = new Configuration(start, new int[caps.length]);
+        numbers.put(first, 0);
+        queue.add(first);
+        builder.addState(0, isAccepting(first.state, first.values));
+        while (!queue.isEmpty()) {
+            Configuration from = queue.poll();
+            int fromNumber = numbers.get(from);
+            for (char c : characters) {
+                int[] values = from.values.clone();
+                int state = step(from.state, c, values);
+                if (state < 0) {
+                    continue;
+                }
+                Configuration to = new Configuration(state, values);
+                Integer toNumber = numbers.get(to);
+                if (toNumber == null) {
+                    if (numbers.size() >= maxStates) {
+                        return null;
+                    }
+                    toNumber = numbers.size();
+                    numbers.put(to, toNumber);
+                    queue.add(to);
+                    builder.addState(toNumber, isAccepting(state, values));
+                }
+                builder.addTransition(fromNumber, c, toNumber);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds an automaton accepting between min and max characters, each one of the given characters.
+     * @param characters The characters that may be repeated
+     * @param min The fewest characters accepted
+     * @param max The most characters accepted
+     * @return The automaton
+     */
+    public static CountingDFA repeat(String characters, int min, int max) {
+        CountingDFA automaton = new CountingDFA();
+        int count = automaton.addCounter();
+        automaton.addState(0, true).setStart(0).setAcceptGuard(0, Guard.between(count, min, max));
+        if (max == 0) {
+            return automaton; // Only the empty string, so no character may be read
+        }
+        for (int i = 0; i < characters.length(); i++) {
+            automaton.addTransition(0, characters.charAt(i), 0, Guard.below(count, max), Update.increment(count));
+        }
+        return automaton;
+    }
+
+    /**
+     * Takes the first transition whose guard holds, updating the counters.
+     * @return The next state, or -1 if there is none
+     */
+    private int step(int state, char c, int[] values) {
+        for (Transition transition : transitions.get(state)) {
+            if (transition.name == c && (transition.guard == null || transition.guard.holds(values))) {
+                for (Update update : transition.updates) {
+                    values[update.counter] = update.reset ? 0 : Math.min(values[update.counter] + 1, caps[update.counter]);
+                }
+                return transition.to;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isAccepting(int state, int[] values) {
+        Guard guard = acceptGuards.get(state);
+        return accepting.get(state) && (guard == null || guard.holds(values));
+    }
+
+    private char[] usedCharacters() {
+        StringBuilder used = new StringBuilder();
+        boolean[] seen = new boolean[Character.MAX_VALUE + 1];
+        for (ArrayList<Transition> list : transitions) {
+            for (Transition transition : list) {
+                if (!seen[transition.name]) {
+                    seen[transition.name] = true;
+                    used.append(transition.name);
+                }
+            }
+        }
+        return used.toString().toCharArray();
+    }
+
+    /**
+     * Counters never need to go past one more than the largest finite bound they are compared to.
+     */
+    private void widenCap(Guard guard) {
+        int bound = guard.max == Integer.MAX_VALUE ? guard.min : guard.max + 1;
+        caps[guard.counter] = Math.max(caps[guard.counter], bound);
+    }
+
+    private void checkCounter(int counter) {
+        if (counter < 0 || counter >= caps.length) {
+            throw new IllegalArgumentException("Counter " + counter + " does not exist.");
+        }
+    }
+
+    private int index(int id) {
+        Integer index = indexOf.get(id);
+        if (index == null) {
+            throw new IllegalArgumentException("Node " + id + " does not exist.");
+        }
+        return index;
+    }
+
+    /**
+     * A state together with the values of every counter.
+     */
+    private static final class Configuration {
+        final int state;
+        final int[] values;
+
+        Configuration(int state, int[] values) {
+            this.state = state;
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Configuration && ((Configuration) o).state == state
+                    && Arrays.equals(((Configuration) o).values, values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * state + Arrays.hashCode(values);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.kor.dfa;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 
 /**
@@ -21,6 +27,9 @@ public class DFA {
     private final ArrayList<Node> nodes; // All the nodes in the DFA, only used for writing to file
     private final ArrayList<Node> acceptingStates; // All the accepting states in the DFA
     private String alphabet = "abcdefghijklmnopqrstuvwxyz"; // The alphabet of the DFA
+    private volatile CompiledDFA compiled = null; // Transition table used by accepts, rebuilt after changes
+    private volatile MatchCache cache = null; // Results of accepts, null if caching is off
+    private long generation = 0; // Bumped on every change, guarded by this
 
     /**
      * Creates a new DFA
@@ -32,10 +41,14 @@ public class DFA {
         this.nodes = nodes;
         this.acceptingStates = new ArrayList<>();
         for(Node node : nodes){
+            node.addOwner(this);
             if(node.isAcceptingState()){
                 acceptingStates.add(node);
             }
         }
+        if (startNode != null) {
+            startNode.addOwner(this);
+        }
     }
 
     public DFA(Node startNode, ArrayList<Node> nodes, String alphabet) {
@@ -44,10 +57,14 @@ public class DFA {
         this.nodes = nodes;
         this.acceptingStates = new ArrayList<>();
         for(Node node : nodes){
+            node.addOwner(this);
             if(node.isAcceptingState()){
                 acceptingStates.add(node);
             }
         }
+        if (startNode != null) {
+            startNode.addOwner(this);
+        }
         this.alphabet = alphabet;
     }
 
@@ -112,6 +129,14 @@ public class DFA {
         return currentNode;
     }
 
+    /**
+     * Returns the start node
+     * @return The start node
+     */
+    public Node getStartNode() {
+        return startNode;
+    }
+
     /**
      * Get the accepting states
      * @return The accepting states
@@ -128,73 +153,228 @@ public class DFA {
         return nodes;
     }
 
+    /**
+     * Adds a node to the DFA. Later changes to the node, and to the nodes it points to,
+     * are seen by accepts.
+     * @param node The node to add
+     */
+    public void addNode(Node node) {
+        nodes.add(node);
+        if (node.isAcceptingState()) {
+            acceptingStates.add(node);
+        }
+        node.adopt(this);
+        modified();
+    }
+
     /**
      * Takes a string and returns true if the string is accepted by the DFA, else false
      * @param input The string to be tested
      * @return True if the string is accepted by the DFA, else false
      */
     public boolean inputString(String input) {
-        if(input.isEmpty()){
-            return isAcceptingState();
+        // Walk by index rather than taking substrings, so matching allocates nothing
+        for (int i = 0; i < input.length(); i++) {
+            if (!nextNode(input.charAt(i))) {
+                // If we can't move to the next node, return false
+                return false;
+            }
         }
+        // We have reached the end of the string, return true if we are in an accepting state, else false
+        return isAcceptingState();
+    }
 
-        while(true){
-            currentNode = currentNode.nextNode(input.charAt(0)); // Move to the next node
-            // Remove the first character from the string
-            input = input.substring(1);
+    /**
+     * Takes a string and returns true if the string is accepted by the DFA, else false.
+     * Always starts from the start node and does not move the current node, so it is
+     * safe to call from several threads at once.
+     * @param input The string to be tested
+     * @return True if the string is accepted by the DFA, else false
+     */
+    public boolean accepts(CharSequence input) {
+        MatchCache cache = this.cache;
+        if (cache == null) {
+            return getCompiled().matches(input);
+        }
 
-            if (input.length() == 0) {
-                // If we have reached the end of the string, return true we are in an accepting state, else false
-                return isAcceptingState();
-            }
-            if (!nextNode(input.charAt(0))) {
-                // If we can't move to the next node, return false
-                return false;
+        String key = input.toString();
+        Boolean cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = cache.getGeneration();
+        boolean accepted = getCompiled().matches(key);
+        cache.put(key, accepted, generation);
+        return accepted;
+    }
+
+    /**
+     * Turns on caching of the results of accepts, replacing any existing cache.
+     * The cache is cleared whenever a node of the DFA is changed.
+     * @param maxSize The most results to keep
+     * @return The cache, for reading its statistics
+     */
+    public MatchCache enableCache(int maxSize) {
+        cache = new MatchCache(maxSize);
+        return cache;
+    }
+
+    /**
+     * Turns off caching of the results of accepts.
+     */
+    public void disableCache() {
+        cache = null;
+    }
+
+    /**
+     * Gets the cache of the results of accepts.
+     * @return The cache, or null if caching is off
+     */
+    public MatchCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Called by the nodes of the DFA whenever one of them changes.
+     * Drops the transition table and cached results, which may now be wrong.
+     */
+    void modified() {
+        synchronized (this) {
+            generation++;
+            compiled = null;
+        }
+        MatchCache cache = this.cache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Gets the transition table used by accepts, compiling it if the DFA changed.
+     */
+    private CompiledDFA getCompiled() {
+        CompiledDFA compiled = this.compiled;
+        if (compiled == null) {
+            long generation = getGeneration();
+            compiled = compile();
+            synchronized (this) {
+                // Only keep the table if the DFA did not change while it was compiled
+                if (generation == this.generation) {
+                    this.compiled = compiled;
+                }
             }
         }
+        return compiled;
     }
 
     /**
-     * Writes the DFA to a file
+     * Gets the number of changes made to the DFA so far. A table built from the DFA
+     * is only current if the generation is the same before and after building it.
+     * @return The generation
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Compiles the DFA into a transition table for fast matching.
+     * The table is a snapshot; later changes to the DFA are not reflected in it.
+     * @return The compiled DFA
+     */
+    public CompiledDFA compile() {
+        return new CompiledDFA(this);
+    }
+
+    /**
+     * Writes the DFA to a file, failing if the file already exists
      * @param fileName The name of the file to write to
-     * @throws IOException If the file cannot be created
+     * @throws FileAlreadyExistsException If the file already exists
+     * @throws IOException If the file cannot be written
      */
     public void toFile(String fileName) throws IOException {
-        File file = new File(fileName);
-        if(!file.createNewFile()){
-            // The file already exists, we need to try with a different name
-            int i = 1;
-            while(!file.createNewFile()){
-                file = new File(fileName + i);
-                i++;
+        toFile(fileName, false);
+    }
+
+    /**
+     * Writes the DFA to a file. Each line is written straight to the file as it is made,
+     * so memory use does not grow with the size of the DFA.
+     * @param fileName The name of the file to write to
+     * @param overwrite True to replace an existing file, false to fail if it exists
+     * @throws FileAlreadyExistsException If the file exists and overwrite is false
+     * @throws IOException If the file cannot be written
+     */
+    public void toFile(String fileName, boolean overwrite) throws IOException {
+        try (BufferedWriter out = openForWriting(fileName, overwrite)) {
+            // Write the first lines of the file
+            out.write("Alphabet=" + alphabet + "\n");
+            out.write("StartID=" + startNode.getId() + "\n");
+
+            // Write the nodes
+            for (Node node : nodes) {
+                node.write(out);
+                out.write('\n');
             }
-        }
 
-        // The file was created, now we need to write to it
-        StringBuilder fileContents = new StringBuilder();
+            // Write the pointers. These must come after all the nodes
+            for (Node node : nodes) {
+                for (Pointers pointer : node.getPointers()) {
+                    pointer.write(out);
+                    out.write('\n');
+                }
+            }
+        }
+    }
 
-        // Write the first line of the file
-        fileContents.append("Alphabet=").append(alphabet).append("\n");
-        fileContents.append("StartID=").append(startNode.getId()).append("\n");
+    /**
+     * Writes the DFA to a file in the Graphviz DOT format, streaming like toFile.
+     * The alphabet is kept in a comment so that the file can be read back with fromFile.
+     * @param fileName The name of the file to write to
+     * @param overwrite True to replace an existing file, false to fail if it exists
+     * @throws FileAlreadyExistsException If the file exists and overwrite is false
+     * @throws IOException If the file cannot be written
+     */
+    public void toDotFile(String fileName, boolean overwrite) throws IOException {
+        try (BufferedWriter out = openForWriting(fileName, overwrite)) {
+            out.write("// Alphabet=" + alphabet + "\n");
+            out.write("digraph \"" + escapeDot(name) + "\" {\n");
+            out.write("    rankdir=LR;\n");
+            out.write("    __start [shape=point];\n");
+            out.write("    __start -> " + startNode.getId() + ";\n");
 
-        ArrayList<Pointers> pointers = new ArrayList<>();
+            // Write the nodes
+            for (Node node : nodes) {
+                out.write("    " + node.getId()
+                        + (node.isAcceptingState() ? " [shape=doublecircle];\n" : " [shape=circle];\n"));
+            }
 
-        // Write the nodes
-        for (Node node : nodes) {
-            fileContents.append(node.toString()).append("\n");
-            pointers.addAll(node.getPointers());
+            // Write the transitions, one edge each
+            for (Node node : nodes) {
+                for (Pointers pointer : node.getPointers()) {
+                    out.write("    " + node.getId() + " -> " + pointer.getNextNode().getId()
+                            + " [label=\"" + escapeDot(String.valueOf(pointer.getName())) + "\"];\n");
+                }
+            }
+            out.write("}\n");
         }
+    }
 
-        // Write the pointers
-        for (Pointers pointer : pointers) {
-            fileContents.append(pointer.toString()).append("\n");
-        }
+    /**
+     * Opens a file for writing through a large buffer.
+     * @param fileName The name of the file
+     * @param overwrite True to replace an existing file, false to fail if it exists
+     */
+    private static BufferedWriter openForWriting(String fileName, boolean overwrite) throws IOException {
+        OpenOption[] options = overwrite
+                ? new OpenOption[]{StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE}
+                : new OpenOption[]{StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE};
+        return new BufferedWriter(new OutputStreamWriter(
+                Files.newOutputStream(Path.of(fileName), options), StandardCharsets.UTF_8), 1 << 16);
+    }
 
-        // Write the file
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            fileWriter.write(fileContents.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Escapes a string for use inside double quotes in a DOT file.
+     */
+    static String escapeDot(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
     }
 }
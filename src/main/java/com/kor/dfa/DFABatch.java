@@ -0,0 +1,310 @@
+package com.kor.dfa;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Non-interactive batch mode. Loads one or more DFAs from files, reads inputs one
+ * per line and writes one result line per input.
+ * With a single DFA the result is "accept" or "reject"; with several it is the
+ * comma separated names of the DFAs that accepted the input, or "-" if none did.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFAController
+ */
+public class DFABatch {
+    private static final int CHUNK_SIZE = 4096; // Lines evaluated together by one task
+    private static final int BUFFER_SIZE = 1 << 16; // Size of the input and output buffers
+
+    private final ArrayList<DFA> dfas = new ArrayList<>(); // The DFAs to evaluate against
+    private final ArrayList<InterleavedMatcher> matchers = new ArrayList<>(); // Matcher for each DFA, empty when caching
+    private final ArrayList<String> inputs = new ArrayList<>(); // Input files, "-" is stdin
+    private String output = null; // Output file, null is stdout
+    private int threads = 1; // Number of threads to evaluate with
+    private int cacheSize = 0; // Results cached per DFA, 0 for no cache
+    private boolean print = false; // Echo each input after its result
+    private boolean stats = false; // Print a summary to stderr
+
+    private long lines = 0; // Number of lines evaluated
+    private long characters = 0; // Number of characters evaluated
+    private long[] accepted; // Number of lines accepted by each DFA
+
+    /**
+     * Gets the usage message.
+     * @return The usage message.
+     */
+    public static String getUsage() {
+        return """
+                Usage: DFAController [options]
+                  -d, --dfa FILE      Load a DFA from a file (repeatable)
+                  -e, --edges FILE    Load a DFA from an edge list file (repeatable)
+                  -i, --input FILE    Read inputs from a file, "-" for stdin (repeatable, default stdin)
+                  -o, --output FILE   Write results to a file (default stdout)
+                  -j, --threads N     Evaluate with N threads (default 1)
+                  -c, --cache N       Cache the results of the last N distinct inputs per DFA
+                  -p, --print         Print each input after its result, separated by a tab
+                  -s, --stats         Print a summary to stderr
+                  -h, --help          Display this help screen
+                Without options the interactive menu is started.
+                """;
+    }
+
+    /**
+     * Runs batch mode.
+     * @param args The command line arguments.
+     * @return The exit code.
+     */
+    public static int run(String[] args) {
+        DFABatch batch = new DFABatch();
+        try {
+            if (!batch.parseArgs(args)) {
+                System.out.print(getUsage());
+                return 0;
+            }
+            batch.evaluate();
+            return 0;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.print(getUsage());
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Parses the command line arguments.
+     * @param args The command line arguments.
+     * @return False if the help screen was requested.
+     * @throws IOException If a DFA cannot be loaded.
+     */
+    private boolean parseArgs(String[] args) throws IOException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-h", "--help" -> {
+                    return false;
+                }
+                case "-d", "--dfa" -> {
+                    String file = value(args, ++i, arg);
+                    DFA dfa = fromFile.constructDFA(file);
+                    dfa.setName(Path.of(file).getFileName().toString());
+                    dfas.add(dfa);
+                }
+                case "-e", "--edges" -> {
+                    String file = value(args, ++i, arg);
+                    DFA dfa = fromFile.constructDFAFromEdgeList(file);
+                    dfa.setName(Path.of(file).getFileName().toString());
+                    dfas.add(dfa);
+                }
+                case "-i", "--input" -> inputs.add(value(args, ++i, arg));
+                case "-o", "--output" -> output = value(args, ++i, arg);
+                case "-j", "--threads" -> {
+                    threads = Integer.parseInt(value(args, ++i, arg));
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("The number of threads must be at least 1.");
+                    }
+                }
+                case "-c", "--cache" -> cacheSize = Integer.parseInt(value(args, ++i, arg));
+                case "-p", "--print" -> print = true;
+                case "-s", "--stats" -> stats = true;
+                default -> throw new IllegalArgumentException("Unknown option " + arg + ".");
+            }
+        }
+        if (dfas.isEmpty()) {
+            throw new IllegalArgumentException("No DFA was given.");
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("-");
+        }
+        for (DFA dfa : dfas) {
+            if (cacheSize > 0) {
+                dfa.enableCache(cacheSize);
+            } else {
+                matchers.add(new InterleavedMatcher(dfa.compile()));
+            }
+        }
+        return true;
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option + ".");
+        }
+        return args[i];
+    }
+
+    /**
+     * Evaluates every input line and writes the results.
+     * @throws IOException If an input cannot be read or the output cannot be written.
+     */
+    private void evaluate() throws IOException {
+        accepted = new long[dfas.size()];
+        long start = System.nanoTime();
+
+        Writer writer = output == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try (BufferedWriter out = new BufferedWriter(writer, BUFFER_SIZE)) {
+            // Chunks that are being evaluated, in input order. Bounded so the reader cannot run far ahead.
+            ArrayDeque<Future<boolean[][]>> pending = new ArrayDeque<>();
+            ArrayDeque<String[]> pendingLines = new ArrayDeque<>();
+
+            for (String input : inputs) {
+                BufferedReader in = input.equals("-")
+                        ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE)
+                        : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8);
+                try {
+                    String[] chunk;
+                    while ((chunk = readChunk(in)) != null) {
+                        if (pool == null) {
+                            write(out, chunk, evaluateChunk(chunk));
+                            continue;
+                        }
+                        final String[] lines = chunk;
+                        pending.add(pool.submit(() -> evaluateChunk(lines)));
+                        pendingLines.add(chunk);
+                        if (pending.size() >= threads * 4) {
+                            write(out, pendingLines.poll(), get(pending.poll()));
+                        }
+                    }
+                } finally {
+                    if (!input.equals("-")) {
+                        in.close();
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(out, pendingLines.poll(), get(pending.poll()));
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        if (stats) {
+            printStats(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reads up to CHUNK_SIZE lines.
+     * @return The lines, or null at the end of the input.
+     */
+    private static String[] readChunk(BufferedReader in) throws IOException {
+        String[] chunk = new String[CHUNK_SIZE];
+        int count = 0;
+        String line;
+        while (count < CHUNK_SIZE && (line = in.readLine()) != null) {
+            chunk[count++] = line;
+        }
+        if (count == 0) {
+            return null;
+        }
+        return count == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, count);
+    }
+
+    /**
+     * Evaluates a chunk of lines against every DFA.
+     * @return The results, indexed by DFA and then by line.
+     */
+    private boolean[][] evaluateChunk(String[] chunk) {
+        boolean[][] results = new boolean[dfas.size()][chunk.length];
+        for (int d = 0; d < dfas.size(); d++) {
+            if (!matchers.isEmpty()) {
+                matchers.get(d).matchAll(chunk, results[d]);
+                continue;
+            }
+            DFA dfa = dfas.get(d);
+            boolean[] result = results[d];
+            for (int i = 0; i < chunk.length; i++) {
+                result[i] = dfa.accepts(chunk[i]);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Writes the results of a chunk and updates the counters.
+     */
+    private void write(BufferedWriter out, String[] chunk, boolean[][] results) throws IOException {
+        for (int i = 0; i < chunk.length; i++) {
+            lines++;
+            characters += chunk[i].length();
+            if (dfas.size() == 1) {
+                boolean accept = results[0][i];
+                if (accept) {
+                    accepted[0]++;
+                }
+                out.write(accept ? "accept" : "reject");
+            } else {
+                boolean any = false;
+                for (int d = 0; d < dfas.size(); d++) {
+                    if (results[d][i]) {
+                        accepted[d]++;
+                        if (any) {
+                            out.write(',');
+                        }
+                        out.write(dfas.get(d).getName());
+                        any = true;
+                    }
+                }
+                if (!any) {
+                    out.write('-');
+                }
+            }
+            if (print) {
+                out.write('\t');
+                out.write(chunk[i]);
+            }
+            out.write('\n');
+        }
+    }
+
+    private static boolean[][] get(Future<boolean[][]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while evaluating.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Evaluation failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Prints a summary of the run to stderr.
+     * @param nanos The time taken, in nanoseconds.
+     */
+    private void printStats(long nanos) {
+        double seconds = nanos / 1e9;
+        System.err.printf("Lines: %d, characters: %d, time: %.3f s%n", lines, characters, seconds);
+        System.err.printf("Throughput: %.0f lines/s, %.1f MB/s%n",
+                lines / seconds, characters / seconds / 1e6);
+        for (int d = 0; d < dfas.size(); d++) {
+            DFA dfa = dfas.get(d);
+            System.err.printf("%s: %d accepted, %d rejected%n", dfa.getName(), accepted[d], lines - accepted[d]);
+            if (dfa.getCache() != null) {
+                System.err.printf("%s: %s%n", dfa.getName(), dfa.getCache());
+            }
+        }
+    }
+}
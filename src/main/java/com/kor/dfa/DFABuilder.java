@@ -0,0 +1,315 @@
+package com.kor.dfa;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.stream.Stream;
+
+/**
+ * Builds a DFA in bulk from states and transitions.
+ * Every state and transition is validated as it is added, using hashed lookups,
+ * so building a DFA is O(states + transitions).
+ *
+ * Edge list files are read line by line. Each line is one of
+ * <pre>
+ * # comment
+ * Alphabet=abc
+ * StartID=0
+ * Accepting=1,2
+ * 0,a,1        (or tab separated: 0	a	1)
+ * </pre>
+ * Spaces around the fields of an edge are ignored, and the character can be quoted
+ * as in CSV: 0, "a", 1.
+ * States are created the first time they are seen in an edge or header.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFA, fromFile
+ */
+public class DFABuilder {
+    private final HashMap<Integer, Node> nodesById = new HashMap<>(); // Node ID -> Node
+    private final ArrayList<Node> nodes = new ArrayList<>(); // All the nodes, in insertion order
+    private final HashSet<Long> transitions = new HashSet<>(); // Source ID and character of every transition
+    private String alphabet = null; // The alphabet of the DFA, null means any character is allowed
+    private boolean[] inAlphabet = null; // Lookup table for the alphabet, indexed by character
+    private final boolean[] used = new boolean[Character.MAX_VALUE + 1]; // Characters used by transitions
+    private final StringBuilder usedCharacters = new StringBuilder(); // Characters used, in order of first use
+    private Integer startID = null; // The ID of the start node
+    private String name = null; // The name of the DFA
+
+    /**
+     * Sets the alphabet of the DFA. Transitions on characters outside the alphabet are rejected.
+     * Must be called before any transitions are added. If it is never called, the alphabet
+     * is the characters used by the transitions.
+     * @param alphabet The alphabet of the DFA
+     * @return This builder
+     */
+    public DFABuilder setAlphabet(String alphabet) {
+        if (!transitions.isEmpty()) {
+            throw new IllegalStateException("The alphabet must be set before adding transitions.");
+        }
+        this.alphabet = alphabet;
+        int max = 0;
+        for (int i = 0; i < alphabet.length(); i++) {
+            max = Math.max(max, alphabet.charAt(i));
+        }
+        inAlphabet = new boolean[max + 1];
+        for (int i = 0; i < alphabet.length(); i++) {
+            inAlphabet[alphabet.charAt(i)] = true;
+        }
+        return this;
+    }
+
+    /**
+     * Sets the ID of the start node.
+     * @param id The ID of the start node
+     * @return This builder
+     */
+    public DFABuilder setStart(int id) {
+        startID = id;
+        return this;
+    }
+
+    /**
+     * Sets the name of the DFA.
+     * @param name The name of the DFA
+     * @return This builder
+     */
+    public DFABuilder setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Adds a state. Adding a state that already exists only updates its accepting state.
+     * @param id The ID of the state
+     * @param accepting True if the state is an accepting state
+     * @return This builder
+     */
+    public DFABuilder addState(int id, boolean accepting) {
+        Node node = nodesById.get(id);
+        if (node == null) {
+            node = new Node(id, accepting);
+            nodesById.put(id, node);
+            nodes.add(node);
+        } else if (accepting) {
+            node.setAcceptingState(true);
+        }
+        return this;
+    }
+
+    /**
+     * Adds many states at once.
+     * @param ids The IDs of the states
+     * @param accepting Whether each state is accepting, or null if none are
+     * @return This builder
+     */
+    public DFABuilder addStates(int[] ids, boolean[] accepting) {
+        if (accepting != null && accepting.length != ids.length) {
+            throw new IllegalArgumentException("ids and accepting must be the same length.");
+        }
+        for (int i = 0; i < ids.length; i++) {
+            addState(ids[i], accepting != null && accepting[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a transition. Both states are created if they do not exist yet.
+     * @param from The ID of the source state
+     * @param name The character of the transition
+     * @param to The ID of the destination state
+     * @return This builder
+     * @throws IllegalArgumentException If the character is not in the alphabet, or
+     *                                  the source state already has a transition on it
+     */
+    public DFABuilder addTransition(int from, char name, int to) {
+        if (inAlphabet != null && (name >= inAlphabet.length || !inAlphabet[name])) {
+            throw new IllegalArgumentException("Character '" + name + "' is not in the alphabet.");
+        }
+        if (!transitions.add(((long) from << 16) | name)) {
+            throw new IllegalArgumentException("Node " + from + " already has a transition on '" + name + "'.");
+        }
+        if (!used[name]) {
+            used[name] = true;
+            usedCharacters.append(name);
+        }
+        Node source = getOrCreate(from);
+        Node dest = getOrCreate(to);
+        source.addPointer(name, dest);
+        return this;
+    }
+
+    /**
+     * Adds many transitions at once. The three arrays are read in parallel.
+     * @param from The IDs of the source states
+     * @param names The characters of the transitions
+     * @param to The IDs of the destination states
+     * @return This builder
+     */
+    public DFABuilder addTransitions(int[] from, char[] names, int[] to) {
+        if (from.length != names.length || from.length != to.length) {
+            throw new IllegalArgumentException("from, names and to must be the same length.");
+        }
+        for (int i = 0; i < from.length; i++) {
+            addTransition(from[i], names[i], to[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Adds every line of an edge list. See the class description for the format.
+     * @param lines The lines of the edge list
+     * @return This builder
+     */
+    public DFABuilder addLines(Stream<String> lines) {
+        lines.forEach(this::addLine);
+        return this;
+    }
+
+    /**
+     * Reads an edge list file. See the class description for the format.
+     * @param path The path to the file
+     * @return This builder
+     * @throws IOException If the file cannot be read
+     */
+    public DFABuilder readEdgeList(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    addLine(line);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a single line of an edge list.
+     * @param line The line to add
+     * @return This builder
+     */
+    public DFABuilder addLine(String line) {
+        // Ignore comments and empty lines
+        if (line.isEmpty() || line.startsWith("#") || line.startsWith("/")) {
+            return this;
+        }
+
+        if (line.startsWith("Alphabet=")) {
+            return setAlphabet(line.substring(9));
+        }
+        if (line.startsWith("StartID=")) {
+            return setStart(Integer.parseInt(line.substring(8).trim()));
+        }
+        if (line.startsWith("Accepting=")) {
+            int start = 10;
+            while (start < line.length()) {
+                int end = line.indexOf(',', start);
+                if (end < 0) {
+                    end = line.length();
+                }
+                addState(parseInt(line, start, end), true);
+                start = end + 1;
+            }
+            return this;
+        }
+
+        // An edge: from, character, to. The separator is whatever follows the source ID.
+        int first = 0;
+        while (first < line.length() && line.charAt(first) != ',' && line.charAt(first) != '\t') {
+            first++;
+        }
+        int last = line.lastIndexOf(line.charAt(Math.min(first, line.length() - 1)));
+        if (first >= line.length() || last <= first) {
+            throw new IllegalArgumentException("Malformed edge \"" + line + "\".");
+        }
+        int from = parseInt(line, 0, first);
+        char name = parseLabel(line, first + 1, last);
+        int to = parseInt(line, last + 1, line.length());
+        return addTransition(from, name, to);
+    }
+
+    /**
+     * Builds the DFA.
+     * @return The DFA
+     * @throws IllegalStateException If no start node was set, or it does not exist
+     */
+    public DFA build() {
+        if (startID == null) {
+            throw new IllegalStateException("No start node was set.");
+        }
+        Node startNode = nodesById.get(startID);
+        if (startNode == null) {
+            throw new IllegalStateException("Start node " + startID + " does not exist.");
+        }
+
+        DFA dfa = new DFA(startNode, nodes, alphabet == null ? usedCharacters.toString() : alphabet);
+        if (name != null) {
+            dfa.setName(name);
+        }
+        return dfa;
+    }
+
+    private Node getOrCreate(int id) {
+        Node node = nodesById.get(id);
+        if (node == null) {
+            node = new Node(id);
+            nodesById.put(id, node);
+            nodes.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Parses the character of an edge. It can be surrounded by spaces or quoted as in CSV,
+     * where a quote is written """". A field that is a single character is taken as is,
+     * so a space or the separator itself can be used without quotes.
+     */
+    private static char parseLabel(String line, int start, int end) {
+        if (end - start == 1) {
+            return line.charAt(start);
+        }
+        while (start < end && line.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end - start == 1) {
+            return line.charAt(start);
+        }
+        if (end - start >= 3 && line.charAt(start) == '"' && line.charAt(end - 1) == '"') {
+            if (end - start == 3) {
+                return line.charAt(start + 1);
+            }
+            if (end - start == 4 && line.charAt(start + 1) == '"' && line.charAt(start + 2) == '"') {
+                return '"';
+            }
+        }
+        throw new IllegalArgumentException("Malformed edge \"" + line + "\".");
+    }
+
+    /**
+     * Parses an integer out of part of a string, without creating a substring.
+     */
+    private static int parseInt(String s, int start, int end) {
+        // Trim surrounding whitespace
+        while (start < end && Character.isWhitespace(s.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(s.charAt(end - 1))) {
+            end--;
+        }
+        return Integer.parseInt(s, start, end, 10);
+    }
+}
@@ -2,7 +2,11 @@ package com.kor.dfa;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Scanner;
 
 public class DFAController {
@@ -10,6 +14,21 @@ public class DFAController {
     private static DFA activeDFA = null; // The DFA that is currently being worked on
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("serve")) {
+            // Run the matching server
+            try {
+                DFAServer.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length > 0) {
+            // Run non-interactively
+            System.exit(DFABatch.run(args));
+        }
+
         int i = 1;
         Scanner in = new Scanner(System.in);
         while (true) {
@@ -79,7 +98,8 @@ public class DFAController {
 //                    "[] Minimize a DFA\n" +
                     "[5] Export DFA to file\n" +
                     "[6] Modify a DFA\n" +
-                    "[7] Exit the DFA Menu\n" +
+                    "[7] Serve all DFAs over HTTP\n" +
+                    "[8] Exit the DFA Menu\n" +
                     "Enter your choice. ");
 
             String input = in.nextLine();
@@ -109,10 +129,23 @@ public class DFAController {
                         stepDFA();
                 case 5 -> {
                     // Export DFA to file
-                    System.out.println("Enter the path to the file you want to save to. ");
-                    input = in.nextLine();
+                    System.out.println("Enter the path to the file you want to save to. " +
+                            "Paths ending in \".dot\" are saved in the Graphviz DOT format.");
+                    String path = in.nextLine().trim();
+                    boolean overwrite = false;
+                    if (Files.exists(Path.of(path))) {
+                        System.out.println("The file already exists. Overwrite it? (y/n)");
+                        overwrite = in.nextLine().trim().equals("y");
+                        if (!overwrite) {
+                            break;
+                        }
+                    }
                     try {
-                        activeDFA.toFile(input.trim());
+                        if (path.endsWith(".dot")) {
+                            activeDFA.toDotFile(path, overwrite);
+                        } else {
+                            activeDFA.toFile(path, overwrite);
+                        }
                     } catch (IOException e) {
                         System.out.println("Error writing to file.");
                     }
@@ -120,6 +153,19 @@ public class DFAController {
                 case 6 -> // Modify a DFA
                         dfaModifyMenu();
                 case 7 -> {
+                    // Serve all DFAs over HTTP
+                    System.out.println("Enter the port to listen on.");
+                    input = in.nextLine();
+                    DFAServer server = new DFAServer();
+                    server.addDFAs(DFAs);
+                    try {
+                        int port = server.start(Integer.parseInt(input.trim()));
+                        System.out.println("Listening on http://localhost:" + port + "/");
+                    } catch (IOException | NumberFormatException e) {
+                        System.out.println("Could not start the server: " + e.getMessage());
+                    }
+                }
+                case 8 -> {
                     // Exit the DFA Menu
                     return;
                 }
@@ -135,10 +181,11 @@ public class DFAController {
     private static DFA createDFA() {
         System.out.println("""
                 Are you creating a DFA from
-                [1] a file
+                [1] a file (in the Graphviz DOT format if it ends in ".dot")
+                [2] an edge list file
                 -- or --
-                [2] from scratch?
-                Enter "1" or "2".""");
+                [3] from scratch?
+                Enter "1", "2" or "3".""");
         Scanner in = new Scanner(System.in);
         String input = in.nextLine();
         input = input.trim();
@@ -149,13 +196,30 @@ public class DFAController {
                 System.out.println("Enter the path to the file.");
                 input = in.nextLine();
                 try {
+                    if (input.trim().endsWith(".dot")) {
+                        return fromFile.constructDFAFromDot(input.trim());
+                    }
                     return fromFile.constructDFA(input);
-                } catch (FileNotFoundException e) {
+                } catch (FileNotFoundException | NoSuchFileException e) {
                     System.out.println("File not found.");
                     return null;
+                } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                    System.out.println("Could not read the file: " + e.getMessage());
+                    return null;
                 }
             }
             case "2" -> {
+                // Create the DFA from an edge list file
+                System.out.println("Enter the path to the file.");
+                input = in.nextLine();
+                try {
+                    return fromFile.constructDFAFromEdgeList(input.trim());
+                } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                    System.out.println("Could not read the edge list: " + e.getMessage());
+                    return null;
+                }
+            }
+            case "3" -> {
                 // Create the DFA from scratch
                 return scratchDFAmaker();
             }
@@ -229,8 +293,13 @@ public class DFAController {
             int choice = Integer.parseInt(input);
 
             switch (choice) {
-                case 1 -> // Create new node
-                        createNode(nodes);
+                case 1 -> {
+                    // Create new node
+                    Node node = createNode(nodes);
+                    if (node != null) {
+                        nodes.add(node);
+                    }
+                }
                 case 2 -> // Create new transition
                         createTransition(nodes, alphabet);
                 case 3 -> {
@@ -367,8 +436,13 @@ public class DFAController {
             String input = in.nextLine();
             int option = Integer.parseInt(input);
             switch (option) {
-                case 1 -> // Add a node
-                        createNode(activeDFA.getNodes());
+                case 1 -> {
+                    // Add a node
+                    Node node = createNode(activeDFA.getNodes());
+                    if (node != null) {
+                        activeDFA.addNode(node);
+                    }
+                }
                 case 2 -> // Add a transition
                         createTransition(activeDFA.getNodes(), activeDFA.getAlphabet());
                 case 3 ->{
@@ -406,7 +480,12 @@ public class DFAController {
         }
     }
 
-    private static void createNode(ArrayList<Node> nodes){
+    /**
+     * Asks for a new node. The node is not added to the list.
+     * @param nodes The existing nodes
+     * @return The new node, or null if its ID is taken
+     */
+    private static Node createNode(ArrayList<Node> nodes){
         // Create new node
         Scanner in = new Scanner(System.in);
         System.out.println("Enter the node ID.");
@@ -417,13 +496,13 @@ public class DFAController {
         for (Node n : nodes) {
             if (n.getId() == id) {
                 System.out.println("Node ID already exists.");
-                return;
+                return null;
             }
         }
         System.out.println("Is this node an accepting state? (y/n)");
         input = in.nextLine();
         boolean accepting = input.equals("y");
-        nodes.add(new Node(id, accepting));
+        return new Node(id, accepting);
     }
 
     public static void createTransition(ArrayList<Node> nodes, String alphabet){
@@ -0,0 +1,101 @@
+package com.kor.dfa;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A load test client for DFAServer. Sends single match requests for the lines of an
+ * input file from several threads at once and prints the throughput and latency percentiles.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFAServer
+ */
+public class DFALoadTest {
+
+    /**
+     * Runs the load test.
+     * @param args url name inputFile concurrency requests
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 5) {
+            System.out.println("Usage: DFALoadTest <url> <dfa name> <input file> <concurrency> <requests>");
+            return;
+        }
+        URI uri = URI.create(args[0].replaceAll("/+$", "") + "/match/" + args[1]);
+        List<String> inputs = Files.readAllLines(Path.of(args[2]), StandardCharsets.UTF_8);
+        int concurrency = Integer.parseInt(args[3]);
+        int requests = Integer.parseInt(args[4]);
+        if (inputs.isEmpty() || requests < 1) {
+            System.out.println("Nothing to send.");
+            return;
+        }
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long[] latencies = new long[requests]; // Latency of each request, -1 unless it succeeded
+        Arrays.fill(latencies, -1);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int t = 0; t < concurrency; t++) {
+            pool.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                            .POST(HttpRequest.BodyPublishers.ofString(inputs.get(i % inputs.size())))
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() == 200) {
+                            latencies[i] = System.nanoTime() - sent;
+                        } else if (response.statusCode() == 503) {
+                            refused.incrementAndGet();
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Refused and failed requests return early, so only successes count towards latency
+        long[] succeeded = Arrays.stream(latencies).filter(latency -> latency >= 0).sorted().toArray();
+        System.out.printf("Requests: %d, succeeded: %d, failed: %d, refused: %d, time: %.3f s, %.0f successful requests/s%n",
+                requests, succeeded.length, failures.get(), refused.get(), seconds, succeeded.length / seconds);
+        if (succeeded.length == 0) {
+            System.out.println("No request succeeded, so there is no latency to report.");
+            return;
+        }
+        System.out.printf("Latency of successful requests p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n",
+                percentile(succeeded, 0.50) / 1e6, percentile(succeeded, 0.99) / 1e6,
+                succeeded[succeeded.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+}
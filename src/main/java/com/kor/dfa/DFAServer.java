@@ -0,0 +1,413 @@
+package com.kor.dfa;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A small HTTP server for matching strings against named DFAs. Only listens on the loopback address.
+ *
+ * <pre>
+ * GET    /dfa                       List the loaded DFAs, one name per line
+ * PUT    /dfa/{name}[?format=edges] Load a DFA from the body, in the file or edge list format
+ * DELETE /dfa/{name}                Unload a DFA
+ * POST   /match/{name}              Match the body as one input, returns "accept" or "reject"
+ * POST   /batch/{name}              Match each line of the body, returns one result per line
+ * </pre>
+ *
+ * Single matches are queued and drained in micro-batches by the batch threads. Each micro-batch
+ * is grouped by DFA and every group is matched with InterleavedMatcher, which walks four inputs
+ * at once, so under load concurrent requests are matched together rather than one by one.
+ * The handler thread does not wait for the match: the response is sent once the micro-batch
+ * is done, so the queue fills up to its limit however few handler threads there are.
+ * /batch requests are matched the same way. The queue is bounded; when it is full, or a request
+ * body is too large, the request is refused with 503 or 413 instead of piling up.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFAController, DFALoadTest, InterleavedMatcher
+ */
+public class DFAServer {
+    private final Map<String, InterleavedMatcher> dfas = new ConcurrentHashMap<>(); // Name -> DFA
+    private final ArrayBlockingQueue<MatchRequest> queue; // Single matches waiting for a batch
+    private final int maxBatch; // Most single matches evaluated in one batch
+    private final int maxBatchLines; // Most lines accepted by /batch
+    private final int maxInputBytes; // Most bytes accepted by /match
+    private final int handlerThreads; // Threads handling HTTP requests
+    private final int batchThreads; // Threads evaluating micro-batches
+
+    private HttpServer server;
+    private ExecutorService handlers;
+    private ExecutorService batchers;
+    private volatile boolean running = false;
+
+    /**
+     * A single match waiting to be evaluated.
+     */
+    private static final class MatchRequest {
+        final InterleavedMatcher dfa;
+        final String input;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        MatchRequest(InterleavedMatcher dfa, String input) {
+            this.dfa = dfa;
+            this.input = input;
+        }
+    }
+
+    /**
+     * Creates a server with the default limits.
+     */
+    public DFAServer() {
+        this(Runtime.getRuntime().availableProcessors() * 2, defaultBatchThreads(), 256, 4096, 100_000, 1 << 20);
+    }
+
+    /**
+     * Creates a server.
+     * @param handlerThreads Threads handling HTTP requests
+     * @param batchThreads Threads evaluating micro-batches of single matches
+     * @param maxBatch Most single matches evaluated in one micro-batch
+     * @param maxPending Most single matches waiting to be evaluated
+     * @param maxBatchLines Most lines accepted in one /batch request
+     * @param maxInputBytes Most bytes accepted in one /match request
+     */
+    public DFAServer(int handlerThreads, int batchThreads, int maxBatch, int maxPending, int maxBatchLines,
+                     int maxInputBytes) {
+        this.handlerThreads = handlerThreads;
+        this.batchThreads = batchThreads;
+        this.maxBatch = maxBatch;
+        this.maxBatchLines = maxBatchLines;
+        this.maxInputBytes = maxInputBytes;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+    }
+
+    /**
+     * Adds a DFA, replacing any DFA with the same name.
+     * @param dfa The DFA to add
+     */
+    public void addDFA(DFA dfa) {
+        addMatcher(dfa.getName(), new InterleavedMatcher(dfa.compile()));
+    }
+
+    /**
+     * Adds a matcher under a name, replacing any DFA with the same name.
+     */
+    void addMatcher(String name, InterleavedMatcher matcher) {
+        dfas.put(name, matcher);
+    }
+
+    /**
+     * Adds several DFAs.
+     * @param toAdd The DFAs to add
+     */
+    public void addDFAs(Collection<DFA> toAdd) {
+        for (DFA dfa : toAdd) {
+            addDFA(dfa);
+        }
+    }
+
+    /**
+     * Starts the server on the loopback address.
+     * @param port The port to listen on, or 0 to pick a free port
+     * @return The port the server is listening on
+     * @throws IOException If the server cannot be started
+     */
+    public int start(int port) throws IOException {
+        // Headers and body are written separately, so without TCP_NODELAY every response waits on a delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        handlers = Executors.newFixedThreadPool(handlerThreads);
+        batchers = Executors.newFixedThreadPool(batchThreads);
+        server.setExecutor(handlers);
+        server.createContext("/dfa", this::handleDFA);
+        server.createContext("/match/", this::handleMatch);
+        server.createContext("/batch/", this::handleBatch);
+
+        running = true;
+        for (int i = 0; i < batchThreads; i++) {
+            batchers.execute(this::runBatches);
+        }
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of single matches waiting to be evaluated.
+     * @return The number of waiting matches
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        running = false;
+        if (server != null) {
+            server.stop(0);
+            handlers.shutdownNow();
+            batchers.shutdownNow();
+        }
+    }
+
+    /**
+     * Takes single matches off the queue and evaluates them in batches until the server stops.
+     */
+    private void runBatches() {
+        ArrayList<MatchRequest> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+
+            // Match each DFA's requests together in one interleaved pass
+            IdentityHashMap<InterleavedMatcher, ArrayList<MatchRequest>> groups = new IdentityHashMap<>();
+            for (MatchRequest request : batch) {
+                groups.computeIfAbsent(request.dfa, dfa -> new ArrayList<>()).add(request);
+            }
+            for (Map.Entry<InterleavedMatcher, ArrayList<MatchRequest>> group : groups.entrySet()) {
+                ArrayList<MatchRequest> requests = group.getValue();
+                CharSequence[] inputs = new CharSequence[requests.size()];
+                for (int i = 0; i < inputs.length; i++) {
+                    inputs[i] = requests.get(i).input;
+                }
+                boolean[] results = group.getKey().matchAll(inputs);
+                for (int i = 0; i < inputs.length; i++) {
+                    requests.get(i).result.complete(results[i]);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * One batch thread per processor, and at least two so one slow batch does not stall the rest.
+     */
+    private static int defaultBatchThreads() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    private void handleDFA(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String name = path.length() > 5 ? path.substring(5) : "";
+        String method = exchange.getRequestMethod();
+
+        if (name.isEmpty()) {
+            if (!method.equals("GET")) {
+                send(exchange, 405, "Method not allowed.\n");
+                return;
+            }
+            StringBuilder list = new StringBuilder();
+            for (String dfaName : dfas.keySet()) {
+                list.append(dfaName).append('\n');
+            }
+            send(exchange, 200, list.toString());
+            return;
+        }
+
+        switch (method) {
+            case "PUT" -> {
+                String query = exchange.getRequestURI().getQuery();
+                DFA dfa;
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                    if ("format=edges".equals(query)) {
+                        dfa = new DFABuilder().addLines(reader.lines()).build();
+                    } else {
+                        dfa = fromFile.constructDFA(reader);
+                    }
+                    dfa.setName(name);
+                    addDFA(dfa);
+                } catch (RuntimeException e) {
+                    send(exchange, 400, "Could not load the DFA: " + e.getMessage() + "\n");
+                    return;
+                }
+                send(exchange, 201, "Loaded " + name + ".\n");
+            }
+            case "DELETE" -> {
+                if (dfas.remove(name) == null) {
+                    send(exchange, 404, "No DFA named " + name + ".\n");
+                } else {
+                    send(exchange, 200, "Removed " + name + ".\n");
+                }
+            }
+            default -> send(exchange, 405, "Method not allowed.\n");
+        }
+    }
+
+    private void handleMatch(HttpExchange exchange) throws IOException {
+        InterleavedMatcher dfa = findDFA(exchange, "/match/");
+        if (dfa == null) {
+            return;
+        }
+        byte[] body = exchange.getRequestBody().readNBytes(maxInputBytes + 1);
+        if (body.length > maxInputBytes) {
+            send(exchange, 413, "An input may have at most " + maxInputBytes + " bytes.\n");
+            return;
+        }
+
+        MatchRequest request = new MatchRequest(dfa, new String(body, StandardCharsets.UTF_8));
+        if (!queue.offer(request)) {
+            send(exchange, 503, "Too many pending requests.\n");
+            return;
+        }
+        // Respond when the batch thread completes the match, leaving this thread free for the next request
+        request.result.orTimeout(10, TimeUnit.SECONDS).whenCompleteAsync((accepted, error) -> {
+            try {
+                if (error != null) {
+                    send(exchange, 503, "Match did not complete.\n");
+                } else {
+                    send(exchange, 200, accepted ? "accept\n" : "reject\n");
+                }
+            } catch (IOException e) {
+                exchange.close();
+            }
+        }, handlers);
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        InterleavedMatcher dfa = findDFA(exchange, "/batch/");
+        if (dfa == null) {
+            return;
+        }
+
+        ArrayList<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lines.size() == maxBatchLines) {
+                    send(exchange, 413, "A batch may have at most " + maxBatchLines + " lines.\n");
+                    return;
+                }
+                lines.add(line);
+            }
+        }
+        boolean[] matched = dfa.matchAll(lines.toArray(new CharSequence[0]));
+        StringBuilder results = new StringBuilder(matched.length * 7);
+        for (boolean accepted : matched) {
+            results.append(accepted ? "accept\n" : "reject\n");
+        }
+        send(exchange, 200, results.toString());
+    }
+
+    /**
+     * Finds the DFA named after the prefix of the request path, sending a 404 if there is none.
+     * @return The DFA, or null if a response was already sent
+     */
+    private InterleavedMatcher findDFA(HttpExchange exchange, String prefix) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, "Method not allowed.\n");
+            return null;
+        }
+        String name = exchange.getRequestURI().getPath().substring(prefix.length());
+        InterleavedMatcher dfa = dfas.get(name);
+        if (dfa == null) {
+            send(exchange, 404, "No DFA named " + name + ".\n");
+        }
+        return dfa;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Gets the usage message.
+     * @return The usage message.
+     */
+    public static String getUsage() {
+        return """
+                Usage: DFAController serve [options]
+                  --port N            Port to listen on (default 8080)
+                  -d, --dfa FILE      Load a DFA from a file (repeatable)
+                  -e, --edges FILE    Load a DFA from an edge list file (repeatable)
+                  --threads N         Threads handling requests (default 2 per processor)
+                  --batch-threads N   Threads evaluating micro-batches (default 1 per processor, at least 2)
+                  --max-batch N       Most single matches in one micro-batch (default 256)
+                  --max-pending N     Most single matches waiting before refusing (default 4096)
+                  --max-lines N       Most lines in one /batch request (default 100000)
+                  --max-input N       Most bytes in one /match request (default 1048576)
+                """;
+    }
+
+    /**
+     * Starts a server from the command line.
+     * @param args The command line arguments, see getUsage().
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
+        int batchThreads = defaultBatchThreads();
+        int maxBatch = 256;
+        int maxPending = 4096;
+        int maxLines = 100_000;
+        int maxInput = 1 << 20;
+        ArrayList<DFA> toLoad = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                System.out.print(getUsage());
+                return;
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--port" -> port = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--batch-threads" -> batchThreads = Integer.parseInt(value);
+                case "--max-batch" -> maxBatch = Integer.parseInt(value);
+                case "--max-pending" -> maxPending = Integer.parseInt(value);
+                case "--max-lines" -> maxLines = Integer.parseInt(value);
+                case "--max-input" -> maxInput = Integer.parseInt(value);
+                case "-d", "--dfa" -> {
+                    DFA dfa = fromFile.constructDFA(value);
+                    dfa.setName(Path.of(value).getFileName().toString());
+                    toLoad.add(dfa);
+                }
+                case "-e", "--edges" -> {
+                    DFA dfa = fromFile.constructDFAFromEdgeList(value);
+                    dfa.setName(Path.of(value).getFileName().toString());
+                    toLoad.add(dfa);
+                }
+                default -> {
+                    System.out.print(getUsage());
+                    return;
+                }
+            }
+        }
+
+        DFAServer server = new DFAServer(threads, batchThreads, maxBatch, maxPending, maxLines, maxInput);
+        server.addDFAs(toLoad);
+        System.out.println("Listening on http://localhost:" + server.start(port) + "/");
+    }
+}
@@ -0,0 +1,311 @@
+package com.kor.dfa;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits text into tokens in a single pass using a DFA, always taking the longest match.
+ * Each accepting state decides the kind of token: a TokenNode gives its token, and
+ * any other accepting node matches text that is skipped, such as whitespace.
+ * The outputs of the OutputPointers followed to match a token are handed to the listener
+ * with it, so translating and tokenizing need only one pass.
+ * Built from a snapshot of the DFA; later changes to the DFA are not seen.
+ * Safe to share between threads.
+ *
+ * To find the longest match the lexer walks past the last accepting state until the
+ * DFA dies, then backtracks to it. The (state, position) pairs walked after it are
+ * remembered as leading nowhere, and a later token that reaches one of them stops there
+ * instead of walking the same characters again, so tokenizing takes at most
+ * O(length * states) steps and O(length) for a DFA of fixed size.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see Transducer, TokenNode
+ */
+public class Lexer {
+    private static final int BUFFER_SIZE = 8192; // Characters read from a Reader at a time
+
+    private final CompiledDFA dfa; // The DFA to match with
+    private final String[] tokens; // State -> kind of token, null if skipped or not accepting
+    private final String[] outputs; // State * columns + column -> output, null if no transition has one
+
+    /**
+     * Receives the tokens found by a Lexer.
+     */
+    public interface TokenListener {
+        /**
+         * Called for every token, in order.
+         * @param token The kind of token
+         * @param text The text of the token
+         * @param offset The offset of the token in the input
+         * @param output The outputs of the pointers followed to match the token, empty if none
+         */
+        void token(String token, String text, long offset, String output);
+    }
+
+    /**
+     * Creates a lexer.
+     * @param dfa The DFA to match with
+     */
+    public Lexer(DFA dfa) {
+        this.dfa = dfa.compile();
+        tokens = new String[this.dfa.getStateCount()];
+        for (int s = 0; s < tokens.length; s++) {
+            Node node = this.dfa.getNode(s);
+            if (node instanceof TokenNode && node.isAcceptingState()) {
+                tokens[s] = ((TokenNode) node).getToken();
+            }
+        }
+        String[] outputs = Transducer.outputTable(this.dfa);
+        boolean any = false;
+        for (String output : outputs) {
+            any |= output != null;
+        }
+        this.outputs = any ? outputs : null;
+    }
+
+    /**
+     * Splits a string into tokens.
+     * @param input The string to split
+     * @param listener Receives the tokens
+     * @throws IllegalArgumentException If no token matches at some offset
+     */
+    public void tokenize(CharSequence input, TokenListener listener) {
+        Scan scan = new Scan();
+        int n = input.length();
+        int start = 0;
+        while (start < n) {
+            // Walk as far as possible, remembering the last accepting state passed
+            int state = dfa.getStartState();
+            int matchEnd = -1;
+            int matchState = -1;
+            scan.begin(start);
+            for (int i = start; i < n; i++) {
+                state = scan.step(state, input.charAt(i), i + 1);
+                if (state == CompiledDFA.DEAD) {
+                    break;
+                }
+                if (dfa.isAccepting(state)) {
+                    matchEnd = i + 1;
+                    matchState = state;
+                    scan.accept(matchEnd);
+                }
+            }
+            if (matchEnd < 0) {
+                throw new IllegalArgumentException("No token matches at offset " + start + ".");
+            }
+            scan.backtrack(matchEnd);
+            if (tokens[matchState] != null) {
+                listener.token(tokens[matchState], input.subSequence(start, matchEnd).toString(), start, scan.output());
+            }
+            start = matchEnd;
+        }
+    }
+
+    /**
+     * Splits a stream into tokens as it is read. The characters from the start of the
+     * token being matched to the furthest character read are kept in memory, which includes
+     * the lookahead past the last accepting state; for tokens such as a and a+b on a long
+     * run of a's that is the rest of the stream.
+     * @param reader The stream to split
+     * @param listener Receives the tokens
+     * @throws IOException If the stream cannot be read
+     * @throws IllegalArgumentException If no token matches at some offset
+     */
+    public void tokenize(Reader reader, TokenListener listener) throws IOException {
+        Scan scan = new Scan();
+        char[] buffer = new char[BUFFER_SIZE];
+        int length = 0; // Characters in the buffer
+        int start = 0; // Start of the current token in the buffer
+        long base = 0; // Offset in the stream of buffer[0]
+        boolean end = false; // True once the stream is exhausted
+
+        while (true) {
+            int state = dfa.getStartState();
+            int matchEnd = -1;
+            int matchState = -1;
+            int i = start;
+            scan.begin(base + start);
+            while (true) {
+                if (i == length) {
+                    if (end) {
+                        break;
+                    }
+                    // Drop the characters before the current token, then read more
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, length - start);
+                        length -= start;
+                        i -= start;
+                        if (matchEnd >= 0) {
+                            matchEnd -= start;
+                        }
+                        base += start;
+                        start = 0;
+                    }
+                    if (length == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                    int read = reader.read(buffer, length, buffer.length - length);
+                    if (read < 0) {
+                        end = true;
+                        break;
+                    }
+                    length += read;
+                    continue;
+                }
+                state = scan.step(state, buffer[i], base + i + 1);
+                i++;
+                if (state == CompiledDFA.DEAD) {
+                    break;
+                }
+                if (dfa.isAccepting(state)) {
+                    matchEnd = i;
+                    matchState = state;
+                    scan.accept(base + matchEnd);
+                }
+            }
+
+            if (matchEnd < 0) {
+                if (end && start == length) {
+                    return;
+                }
+                throw new IllegalArgumentException("No token matches at offset " + (base + start) + ".");
+            }
+            scan.backtrack(base + matchEnd);
+            if (tokens[matchState] != null) {
+                listener.token(tokens[matchState], new String(buffer, start, matchEnd - start), base + start,
+                        scan.output());
+            }
+            start = matchEnd;
+        }
+    }
+
+    /**
+     * The state of one call to tokenize: the (state, position) pairs known to lead to no
+     * accepting state, and the outputs of the token being matched.
+     */
+    private final class Scan {
+        private final int states = dfa.getStateCount();
+        private final int columns = dfa.getColumnCount();
+        private long[] failed = new long[16]; // Open addressing set of position * states + state, -1 is empty
+        private int failedCount = 0;
+        private long failedUntil = -1; // The largest position in failed
+        private long anchor = 0; // Position of the last accepting state, or the start
+        private int[] trail = new int[16]; // trail[k] is the state at position anchor + 1 + k
+        private int trailLength = 0;
+        private final StringBuilder output = new StringBuilder(); // Outputs of the pointers walked
+        private int outputMark = 0; // Length of output at the last accepting state
+
+        Scan() {
+            Arrays.fill(failed, -1);
+        }
+
+        void begin(long position) {
+            anchor = position;
+            trailLength = 0;
+            output.setLength(0);
+            outputMark = 0;
+        }
+
+        /**
+         * Follows the transition on a character, treating a pair known to fail as dead.
+         * @param position The position after the character
+         * @return The next state, or DEAD
+         */
+        int step(int state, char c, long position) {
+            int column = dfa.columnOf(c);
+            int next = column < 0 ? CompiledDFA.DEAD : dfa.next(state, column);
+            if (next == CompiledDFA.DEAD || (position <= failedUntil && contains(position * states + next))) {
+                return CompiledDFA.DEAD;
+            }
+            if (outputs != null) {
+                String out = outputs[state * columns + column];
+                if (out != null) {
+                    output.append(out);
+                }
+            }
+            if (trailLength == trail.length) {
+                trail = Arrays.copyOf(trail, trail.length * 2);
+            }
+            trail[trailLength++] = next;
+            return next;
+        }
+
+        void accept(long position) {
+            anchor = position;
+            trailLength = 0;
+            outputMark = output.length();
+        }
+
+        /**
+         * Remembers every pair walked after the last accepting state as leading nowhere.
+         */
+        void backtrack(long matchEnd) {
+            for (int k = 0; k < trailLength; k++) {
+                long position = anchor + 1 + k;
+                add(position * states + trail[k], matchEnd);
+                failedUntil = Math.max(failedUntil, position);
+            }
+            trailLength = 0;
+        }
+
+        String output() {
+            return outputMark == 0 ? "" : output.substring(0, outputMark);
+        }
+
+        private boolean contains(long key) {
+            int mask = failed.length - 1;
+            for (int slot = slot(key, mask); failed[slot] != -1; slot = (slot + 1) & mask) {
+                if (failed[slot] == key) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds a pair. When the set fills up, pairs behind the next token are dropped first,
+         * since no later token can reach them.
+         */
+        private void add(long key, long from) {
+            if ((failedCount + 1) * 2 > failed.length) {
+                long[] old = failed;
+                long min = from * states;
+                int kept = 0;
+                for (long k : old) {
+                    if (k >= min) {
+                        kept++;
+                    }
+                }
+                failed = new long[(kept + 1) * 4 > old.length ? old.length * 2 : old.length];
+                Arrays.fill(failed, -1);
+                failedCount = 0;
+                for (long k : old) {
+                    if (k >= min) {
+                        insert(k);
+                    }
+                }
+            }
+            insert(key);
+        }
+
+        private void insert(long key) {
+            int mask = failed.length - 1;
+            int slot = slot(key, mask);
+            while (failed[slot] != -1) {
+                if (failed[slot] == key) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            failed[slot] = key;
+            failedCount++;
+        }
+
+        private int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.kor.dfa;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of match results, evicting the least recently used input when full.
+ * Keeps hit, miss and eviction counts. Safe to share between threads.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFA#enableCache(int)
+ */
+public class MatchCache {
+    private final int maxSize; // The most results kept
+    private final LinkedHashMap<String, Boolean> results; // Input -> accepted, in access order
+    private long generation = 0; // Bumped on every clear, so results computed before it are not stored
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates a cache.
+     * @param maxSize The most results to keep
+     */
+    public MatchCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The cache size must be at least 1.");
+        }
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                if (size() > MatchCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached result, counting a hit or a miss.
+     * @param input The input
+     * @return The result, or null if it is not cached
+     */
+    public synchronized Boolean get(String input) {
+        Boolean result = results.get(input);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the current generation. Pass it to put() so that a result computed
+     * before the cache was cleared is not stored.
+     * @return The current generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Stores a result, unless the cache was cleared since the generation was read.
+     * @param input The input
+     * @param accepted The result
+     * @param generation The generation read before the result was computed
+     */
+    public synchronized void put(String input, boolean accepted, long generation) {
+        if (generation == this.generation) {
+            results.put(input, accepted);
+        }
+    }
+
+    /**
+     * Removes every result. The statistics are kept.
+     */
+    public synchronized void clear() {
+        results.clear();
+        generation++;
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the fraction of lookups that were hits.
+     * @return The hit rate, or 0 if there were no lookups
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("MatchCache{Size=%d/%d;Hits=%d;Misses=%d;Evictions=%d;HitRate=%.1f%%;}",
+                results.size(), maxSize, hits, misses, evictions, getHitRate() * 100);
+    }
+}
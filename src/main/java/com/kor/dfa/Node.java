@@ -1,6 +1,10 @@
 package com.kor.dfa;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * A node in the NFA graph.
@@ -10,9 +14,12 @@ import java.util.ArrayList;
  * @date 2023-02-16
  */
 public class Node {
+    private static final DFA[] NO_OWNERS = new DFA[0];
+
     private final ArrayList<Pointers> pointers;
     private boolean acceptingState = false;
     private final int id;
+    private DFA[] owners = NO_OWNERS; // The DFAs this node belongs to, all told about every change
 
     public Node(int id) {
         this.id = id;
@@ -31,10 +38,18 @@ public class Node {
 
     public void addPointer(Pointers pointer) {
         pointers.add(pointer);
+        DFA[] owners = this.owners;
+        for (DFA owner : owners) {
+            // Nodes added after the DFA was created join it once they can be reached
+            pointer.getNextNode().adopt(owner);
+            owner.modified();
+        }
     }
 
     public Node nextNode(char name) {
-        for (Pointers pointer : pointers) {
+        // Indexed rather than for-each, so no iterator is created on every step
+        for (int i = 0, n = pointers.size(); i < n; i++) {
+            Pointers pointer = pointers.get(i);
             if (pointer.getName() == name) {
                 return pointer.getNextNode();
             }
@@ -48,6 +63,48 @@ public class Node {
 
     public void setAcceptingState(boolean acceptingState) {
         this.acceptingState = acceptingState;
+        for (DFA owner : owners) {
+            owner.modified();
+        }
+    }
+
+    /**
+     * Adds a DFA this node belongs to. A node can belong to several DFAs, for example
+     * when a builder is built twice, and every one of them is told about changes.
+     * @param owner The DFA
+     * @return False if the node already belonged to the DFA
+     */
+    boolean addOwner(DFA owner) {
+        for (DFA existing : owners) {
+            if (existing == owner) {
+                return false;
+            }
+        }
+        DFA[] added = Arrays.copyOf(owners, owners.length + 1);
+        added[owners.length] = owner;
+        owners = added;
+        return true;
+    }
+
+    /**
+     * Adds a DFA to this node and to every node reachable from it that does not belong to it yet.
+     * @param owner The DFA
+     */
+    void adopt(DFA owner) {
+        if (!addOwner(owner)) {
+            return;
+        }
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            ArrayList<Pointers> out = pending.pop().pointers;
+            for (int i = 0, n = out.size(); i < n; i++) {
+                Node next = out.get(i).getNextNode();
+                if (next.addOwner(owner)) {
+                    pending.push(next);
+                }
+            }
+        }
     }
 
     public int getId() {
@@ -71,15 +128,51 @@ public class Node {
         return sb.toString();
     }
 
+    /**
+     * Writes the same text as toString, without building it in memory first.
+     * @param out Where to write the node
+     * @throws IOException If the node cannot be written
+     */
+    void write(Writer out) throws IOException {
+        out.write("Node{ID=");
+        writeInt(out, id);
+        out.write(acceptingState ? ";AcceptingState=true;Pointers=" : ";AcceptingState=false;Pointers=");
+        for (int i = 0, n = pointers.size(); i < n; i++) {
+            pointers.get(i).write(out);
+            out.write(',');
+        }
+        out.write(";}");
+    }
+
+    /**
+     * Writes the digits of an integer one at a time, without making a string of them.
+     */
+    static void writeInt(Writer out, int value) throws IOException {
+        if (value < 0) {
+            out.write(Integer.toString(value));
+            return;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write('0' + value / divisor % 10);
+        }
+    }
+
     public static Node fromString(String toBuild) {
-        if (!toBuild.startsWith("Node{")) {
+        if (!toBuild.startsWith("Node{ID=")) {
             throw new IllegalArgumentException("String is not a node.");
         }
-        toBuild = toBuild.substring(5, toBuild.length() - 1); // Remove the "Node{" and the "}" at the end.
 
-        String[] parts = toBuild.split(";"); // Split the string into the three parts.
-        int id = Integer.parseInt(parts[0].substring(3)); // Get the ID.
-        boolean acceptingState = Boolean.parseBoolean(parts[1].substring(15)); // Get the accepting state.
+        // Read the fields in place rather than splitting the string into parts
+        int idEnd = toBuild.indexOf(';', 8);
+        if (idEnd < 0 || !toBuild.startsWith("AcceptingState=", idEnd + 1)) {
+            throw new IllegalArgumentException("String is not a node.");
+        }
+        int id = Integer.parseInt(toBuild, 8, idEnd, 10); // Get the ID.
+        boolean acceptingState = toBuild.regionMatches(true, idEnd + 16, "true", 0, 4); // Get the accepting state.
 
         return new Node(id, acceptingState);
     }
@@ -0,0 +1,34 @@
+package com.kor.dfa;
+
+/**
+ * A pointer that also produces output when it is followed, for use in a Transducer.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see Pointers, Transducer
+ */
+public class OutputPointers extends Pointers {
+    private final String output; // The output produced when the pointer is followed
+
+    /**
+     * Creates a new pointer with output.
+     *
+     * @param name The name of the pointer.
+     * @param pointsTo The node that the pointer points to.
+     * @param parent The node that the pointer is from.
+     * @param output The output produced when the pointer is followed.
+     */
+    public OutputPointers(char name, Node pointsTo, Node parent, String output) {
+        super(name, pointsTo, parent);
+        this.output = output;
+    }
+
+    /**
+     * Gets the output produced when the pointer is followed.
+     *
+     * @return The output of the pointer.
+     */
+    public String getOutput() {
+        return output;
+    }
+}
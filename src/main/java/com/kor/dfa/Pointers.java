@@ -1,6 +1,9 @@
 package com.kor.dfa;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Map;
 
 /**
  * A pointer in the NFA graph. Points from one Node to another.
@@ -60,6 +63,21 @@ public class Pointers {
                 "}";
     }
 
+    /**
+     * Writes the same text as toString, without building it in memory first.
+     * @param out Where to write the pointer.
+     * @throws IOException If the pointer cannot be written.
+     */
+    void write(Writer out) throws IOException {
+        out.write("Pointer{Name=");
+        out.write(Name);
+        out.write(";PointsTo=");
+        Node.writeInt(out, pointsTo.getId());
+        out.write(";Parent=");
+        Node.writeInt(out, parent.getId());
+        out.write(";}");
+    }
+
     /**
      * Creates a pointer from a string.
      * @param toBuild The string to build the pointer from.
@@ -99,4 +117,38 @@ public class Pointers {
 
         return new Pointers(name, nextNode, parentNode);
     }
+
+    /**
+     * Creates a pointer from a string, looking the nodes up by ID.
+     * Reads the fields in place, so no substrings are made.
+     * @param toBuild The string to build the pointer from.
+     * @param nodesById The nodes that the pointer can point to, by ID.
+     * @return The pointer that was built.
+     */
+    public static Pointers fromString(String toBuild, Map<Integer, Node> nodesById) {
+        // "Pointer{Name=" is followed by the name, then ";PointsTo=" at a fixed offset
+        if (!toBuild.startsWith("Pointer{Name=") || !toBuild.startsWith(";PointsTo=", 14)) {
+            throw new IllegalArgumentException("String is not a pointer.");
+        }
+        char name = toBuild.charAt(13);
+
+        // Get the node IDs that the pointer points to and from.
+        int pointsToEnd = toBuild.indexOf(';', 24);
+        if (pointsToEnd < 0 || !toBuild.startsWith("Parent=", pointsToEnd + 1)) {
+            throw new IllegalArgumentException("String is not a pointer.");
+        }
+        int parentEnd = toBuild.indexOf(';', pointsToEnd + 8);
+        if (parentEnd < 0) {
+            throw new IllegalArgumentException("String is not a pointer.");
+        }
+        Node nextNode = nodesById.get(Integer.parseInt(toBuild, 24, pointsToEnd, 10));
+        Node parentNode = nodesById.get(Integer.parseInt(toBuild, pointsToEnd + 8, parentEnd, 10));
+
+        // Check if the nodes were found. If not, throw an exception.
+        if (parentNode == null || nextNode == null) {
+            throw new IllegalArgumentException("Node not found.");
+        }
+
+        return new Pointers(name, nextNode, parentNode);
+    }
 }
@@ -0,0 +1,379 @@
+package com.kor.dfa;
+
+import java.util.Arrays;
+
+/**
+ * Matches inputs that share long prefixes, such as URLs and file paths, without
+ * walking the shared prefix again for every input.
+ *
+ * The state reached after every full chunk of {@code stride} characters is kept in a
+ * trie of checkpoints. Matching descends the trie as far as the input allows and only
+ * walks the DFA from the deepest checkpoint found, adding one checkpoint below it, so
+ * the trie only grows deep along prefixes that keep coming back. The number of
+ * checkpoints is bounded; when the bound is reached the least recently used checkpoints are
+ * evicted until half are left.
+ * Not safe to share between threads, use one matcher per thread.
+ *
+ * For a batch of inputs, matchSorted() reuses the states of the previous input's
+ * common prefix instead, which needs no memory beyond the longest input.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see CompiledDFA
+ */
+public class PrefixMatcher {
+    private final CompiledDFA dfa; // The DFA to match against
+    private final int stride; // Characters between checkpoints
+    private final int maxCheckpoints; // The most checkpoints kept
+    private final Checkpoint root; // The start state, never evicted
+
+    private int checkpoints = 0; // Number of checkpoints, not counting the root
+    private long clock = 0; // Incremented on every match, used for eviction
+    private long charactersSkipped = 0; // Characters not walked thanks to a checkpoint
+    private long charactersWalked = 0; // Characters walked through the DFA
+
+    /**
+     * A state reached after a prefix. Children are kept in an open addressing table
+     * keyed by the hash of their chunk.
+     */
+    private static final class Checkpoint {
+        final String chunk; // The characters leading here from the parent
+        final int state; // The state reached after the prefix
+        long lastUsed; // Clock of the last match that passed through
+        int[] hashes = null; // Hash of each child's chunk
+        Checkpoint[] children = null; // The children, null slots are empty
+        int childCount = 0;
+
+        Checkpoint(String chunk, int state, long lastUsed) {
+            this.chunk = chunk;
+            this.state = state;
+            this.lastUsed = lastUsed;
+        }
+
+        Checkpoint find(CharSequence input, int start, int hash) {
+            if (children == null) {
+                return null;
+            }
+            int mask = children.length - 1;
+            for (int slot = hash & mask; children[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && regionMatches(children[slot].chunk, input, start)) {
+                    return children[slot];
+                }
+            }
+            return null;
+        }
+
+        void add(Checkpoint child, int hash) {
+            if (children == null) {
+                hashes = new int[4];
+                children = new Checkpoint[4];
+            } else if ((childCount + 1) * 3 > children.length * 2) {
+                Checkpoint[] old = children;
+                int[] oldHashes = hashes;
+                hashes = new int[old.length * 2];
+                children = new Checkpoint[old.length * 2];
+                childCount = 0;
+                for (int i = 0; i < old.length; i++) {
+                    if (old[i] != null) {
+                        add(old[i], oldHashes[i]);
+                    }
+                }
+            }
+            int mask = children.length - 1;
+            int slot = hash & mask;
+            while (children[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            children[slot] = child;
+            childCount++;
+        }
+    }
+
+    /**
+     * Creates a matcher.
+     * @param dfa The DFA to match against
+     * @param stride Characters between checkpoints
+     * @param maxCheckpoints The most checkpoints to keep
+     */
+    public PrefixMatcher(CompiledDFA dfa, int stride, int maxCheckpoints) {
+        if (stride < 1 || maxCheckpoints < 1) {
+            throw new IllegalArgumentException("The stride and the number of checkpoints must be at least 1.");
+        }
+        this.dfa = dfa;
+        this.stride = stride;
+        this.maxCheckpoints = maxCheckpoints;
+        this.root = new Checkpoint(null, dfa.getStartState(), 0);
+    }
+
+    /**
+     * Creates a matcher with a stride of 8 characters and up to 65536 checkpoints.
+     * @param dfa The DFA to match against
+     */
+    public PrefixMatcher(CompiledDFA dfa) {
+        this(dfa, 8, 1 << 16);
+    }
+
+    /**
+     * Returns true if the string is accepted, resuming from the deepest checkpoint of its prefix.
+     * @param input The string to be tested
+     * @return True if the string is accepted, else false
+     */
+    public boolean matches(CharSequence input) {
+        long now = ++clock;
+        int n = input.length();
+        // Evict before descending, so the checkpoint added below is never on a removed path
+        if (checkpoints >= maxCheckpoints) {
+            evict();
+        }
+
+        // Descend to the deepest checkpoint
+        Checkpoint node = root;
+        int pos = 0;
+        while (pos + stride <= n) {
+            Checkpoint child = node.find(input, pos, hash(input, pos, stride));
+            if (child == null) {
+                break;
+            }
+            child.lastUsed = now;
+            node = child;
+            pos += stride;
+            if (child.state == CompiledDFA.DEAD) {
+                charactersSkipped += pos;
+                return false;
+            }
+        }
+        charactersSkipped += pos;
+
+        // Walk the next chunk and leave a checkpoint after it
+        int state = node.state;
+        if (pos + stride <= n) {
+            for (int i = pos; i < pos + stride && state != CompiledDFA.DEAD; i++) {
+                state = dfa.step(state, input.charAt(i));
+            }
+            charactersWalked += stride;
+            node.add(new Checkpoint(input.subSequence(pos, pos + stride).toString(), state, now),
+                    hash(input, pos, stride));
+            checkpoints++;
+            pos += stride;
+        }
+
+        // Walk the rest
+        charactersWalked += n - pos;
+        for (int i = pos; i < n && state != CompiledDFA.DEAD; i++) {
+            state = dfa.step(state, input.charAt(i));
+        }
+        return state != CompiledDFA.DEAD && dfa.isAccepting(state);
+    }
+
+    /**
+     * Matches a batch of inputs, reusing the states walked for the previous input's
+     * common prefix. Works for any order, but saves the most when the inputs are sorted.
+     * @param dfa The DFA to match against
+     * @param inputs The strings to be tested
+     * @return Whether each string was accepted
+     */
+    public static boolean[] matchSorted(CompiledDFA dfa, CharSequence[] inputs) {
+        boolean[] results = new boolean[inputs.length];
+        int[] states = new int[64]; // states[i] is the state after i characters of the previous input
+        states[0] = dfa.getStartState();
+        int walked = 0; // Number of characters of the previous input with a state in states
+        CharSequence previous = "";
+
+        for (int k = 0; k < inputs.length; k++) {
+            CharSequence input = inputs[k];
+            int n = input.length();
+            if (states.length <= n) {
+                states = Arrays.copyOf(states, Math.max(n + 1, states.length * 2));
+            }
+
+            // Resume from the end of the common prefix
+            int pos = 0;
+            int limit = Math.min(walked, n);
+            while (pos < limit && input.charAt(pos) == previous.charAt(pos)) {
+                pos++;
+            }
+            int state = states[pos];
+            while (pos < n && state != CompiledDFA.DEAD) {
+                state = dfa.step(state, input.charAt(pos++));
+                states[pos] = state;
+            }
+            walked = pos;
+            previous = input;
+            results[k] = state != CompiledDFA.DEAD && dfa.isAccepting(state);
+        }
+        return results;
+    }
+
+    /**
+     * Removes the least recently used checkpoints until half of maxCheckpoints are left.
+     * A checkpoint is never used more recently than its parent, and of checkpoints used
+     * equally recently the deepest are removed first, so whole subtrees are removed
+     * together and a kept checkpoint is always reachable.
+     */
+    private void evict() {
+        int keep = maxCheckpoints / 2;
+        if (keep == 0) {
+            root.children = null;
+            root.hashes = null;
+            root.childCount = 0;
+            checkpoints = 0;
+            return;
+        }
+        long[] times = new long[checkpoints];
+        int[] count = {0};
+        collectTimes(root, times, count);
+        Arrays.sort(times, 0, count[0]);
+        long cutoff = times[count[0] - keep];
+
+        // Checkpoints used after the cutoff are all kept; the rest are taken from those used at it, shallowest first
+        int newer = count[0] - upperBound(times, count[0], cutoff);
+        int[] depths = new int[count[0]];
+        int[] ties = {0};
+        collectDepths(root, 1, cutoff, depths, ties);
+        Arrays.sort(depths, 0, ties[0]);
+        int quota = keep - newer;
+        int maxDepth = depths[quota - 1];
+        int shallower = lowerBound(depths, ties[0], maxDepth);
+        checkpoints = prune(root, 1, cutoff, maxDepth, new int[]{quota - shallower});
+    }
+
+    private static void collectTimes(Checkpoint node, long[] times, int[] count) {
+        if (node.children == null) {
+            return;
+        }
+        for (Checkpoint child : node.children) {
+            if (child != null) {
+                times[count[0]++] = child.lastUsed;
+                collectTimes(child, times, count);
+            }
+        }
+    }
+
+    /**
+     * Collects the depths of the checkpoints used exactly at the cutoff.
+     */
+    private static void collectDepths(Checkpoint node, int depth, long cutoff, int[] depths, int[] count) {
+        if (node.children == null) {
+            return;
+        }
+        for (Checkpoint child : node.children) {
+            if (child != null && child.lastUsed >= cutoff) {
+                if (child.lastUsed == cutoff) {
+                    depths[count[0]++] = depth;
+                }
+                collectDepths(child, depth + 1, cutoff, depths, count);
+            }
+        }
+    }
+
+    /**
+     * Removes the children of a checkpoint used before the cutoff, and those used at the
+     * cutoff that are deeper than maxDepth or past the number left at maxDepth.
+     * @return The number of checkpoints kept below the node
+     */
+    private static int prune(Checkpoint node, int depth, long cutoff, int maxDepth, int[] leftAtMaxDepth) {
+        if (node.children == null) {
+            return 0;
+        }
+        Checkpoint[] old = node.children;
+        int[] oldHashes = node.hashes;
+        node.children = null;
+        node.hashes = null;
+        node.childCount = 0;
+        int kept = 0;
+        for (int i = 0; i < old.length; i++) {
+            Checkpoint child = old[i];
+            if (child == null || child.lastUsed < cutoff) {
+                continue;
+            }
+            if (child.lastUsed == cutoff && depth >= maxDepth) {
+                if (depth > maxDepth || leftAtMaxDepth[0] == 0) {
+                    continue;
+                }
+                leftAtMaxDepth[0]--;
+            }
+            node.add(child, oldHashes[i]);
+            kept += 1 + prune(child, depth + 1, cutoff, maxDepth, leftAtMaxDepth);
+        }
+        return kept;
+    }
+
+    /**
+     * Index of the first value greater than the key in a sorted array.
+     */
+    private static int upperBound(long[] sorted, int length, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index of the first value not less than the key in a sorted array.
+     */
+    private static int lowerBound(int[] sorted, int length, int key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int hash(CharSequence input, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + input.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean regionMatches(String chunk, CharSequence input, int start) {
+        if (input instanceof String) {
+            return chunk.regionMatches(0, (String) input, start, chunk.length());
+        }
+        for (int i = 0; i < chunk.length(); i++) {
+            if (chunk.charAt(i) != input.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of checkpoints kept.
+     * @return The number of checkpoints
+     */
+    public int getCheckpointCount() {
+        return checkpoints;
+    }
+
+    /**
+     * Gets the number of characters that did not need to be walked because of a checkpoint.
+     * @return The number of characters skipped
+     */
+    public long getCharactersSkipped() {
+        return charactersSkipped;
+    }
+
+    /**
+     * Gets the number of characters walked through the DFA.
+     * @return The number of characters walked
+     */
+    public long getCharactersWalked() {
+        return charactersWalked;
+    }
+}
@@ -0,0 +1,32 @@
+package com.kor.dfa;
+
+/**
+ * An accepting node that names the kind of token matched by reaching it, for use in a Transducer.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see Node, Transducer, Lexer
+ */
+public class TokenNode extends Node {
+    private final String token; // The kind of token matched when ending here
+
+    /**
+     * Creates a new accepting node.
+     *
+     * @param id The ID of the node.
+     * @param token The kind of token matched when ending at this node.
+     */
+    public TokenNode(int id, String token) {
+        super(id, true);
+        this.token = token;
+    }
+
+    /**
+     * Gets the kind of token matched when ending at this node.
+     *
+     * @return The kind of token.
+     */
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,145 @@
+package com.kor.dfa;
+
+import java.util.ArrayList;
+
+/**
+ * A DFA whose pointers can produce output as they are followed (a Mealy machine),
+ * so a string can be checked and translated in a single pass.
+ * Pointers that produce output are OutputPointers; other pointers produce nothing.
+ * Accepting states can be TokenNodes, which name the token matched; see lexer().
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see OutputPointers, TokenNode, Lexer
+ */
+public class Transducer extends DFA {
+    private volatile Tables tables = null; // Transition and output tables, rebuilt after changes
+
+    /**
+     * The compiled DFA and the output of each of its transitions.
+     */
+    private static final class Tables {
+        final CompiledDFA dfa;
+        final String[] outputs; // state * columns + column -> output, or null
+
+        Tables(CompiledDFA dfa) {
+            this.dfa = dfa;
+            this.outputs = outputTable(dfa);
+        }
+    }
+
+    /**
+     * Gets the output of every transition of a compiled DFA.
+     * @param dfa The compiled DFA
+     * @return state * columns + column -> output, or null if the transition produces none
+     */
+    static String[] outputTable(CompiledDFA dfa) {
+        int columns = dfa.getColumnCount();
+        String[] outputs = new String[dfa.getStateCount() * columns];
+        for (int s = 0; s < dfa.getStateCount(); s++) {
+            // Walk the pointers backwards so the first pointer for a character wins, like Node.nextNode
+            ArrayList<Pointers> pointers = dfa.getNode(s).getPointers();
+            for (int i = pointers.size() - 1; i >= 0; i--) {
+                Pointers pointer = pointers.get(i);
+                int column = dfa.columnOf(pointer.getName());
+                outputs[s * columns + column] = pointer instanceof OutputPointers
+                        ? ((OutputPointers) pointer).getOutput() : null;
+            }
+        }
+        return outputs;
+    }
+
+    /**
+     * Creates a new transducer
+     * @param startNode The start node of the transducer
+     * @param nodes All the nodes of the transducer
+     */
+    public Transducer(Node startNode, ArrayList<Node> nodes) {
+        super(startNode, nodes);
+    }
+
+    /**
+     * Creates a new transducer
+     * @param startNode The start node of the transducer
+     * @param nodes All the nodes of the transducer
+     * @param alphabet The alphabet of the transducer
+     */
+    public Transducer(Node startNode, ArrayList<Node> nodes, String alphabet) {
+        super(startNode, nodes, alphabet);
+    }
+
+    /**
+     * Runs a string through the transducer from the start node.
+     * @param input The string to translate
+     * @return The outputs of the pointers followed, or null if the string is not accepted
+     */
+    public String transduce(CharSequence input) {
+        StringBuilder out = new StringBuilder();
+        return transduce(input, out) ? out.toString() : null;
+    }
+
+    /**
+     * Runs a string through the transducer from the start node, appending the outputs
+     * of the pointers followed. Nothing is appended if the string is not accepted.
+     * @param input The string to translate
+     * @param out Where to append the output
+     * @return True if the string is accepted, else false
+     */
+    public boolean transduce(CharSequence input, StringBuilder out) {
+        Tables tables = getTables();
+        CompiledDFA dfa = tables.dfa;
+        int columns = dfa.getColumnCount();
+        int mark = out.length();
+        int state = dfa.getStartState();
+        for (int i = 0; i < input.length(); i++) {
+            int column = dfa.columnOf(input.charAt(i));
+            int next = column < 0 ? CompiledDFA.DEAD : dfa.next(state, column);
+            if (next == CompiledDFA.DEAD) {
+                out.setLength(mark);
+                return false;
+            }
+            String output = tables.outputs[state * columns + column];
+            if (output != null) {
+                out.append(output);
+            }
+            state = next;
+        }
+        if (!dfa.isAccepting(state)) {
+            out.setLength(mark);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a longest match lexer from the current nodes of the transducer.
+     * The lexer hands each token the outputs of the pointers followed to match it.
+     * @return The lexer
+     */
+    public Lexer lexer() {
+        return new Lexer(this);
+    }
+
+    @Override
+    void modified() {
+        synchronized (this) {
+            tables = null;
+            super.modified();
+        }
+    }
+
+    private Tables getTables() {
+        Tables tables = this.tables;
+        if (tables == null) {
+            long generation = getGeneration();
+            tables = new Tables(compile());
+            synchronized (this) {
+                // Only keep the tables if the transducer did not change while they were built
+                if (generation == getGeneration()) {
+                    this.tables = tables;
+                }
+            }
+        }
+        return tables;
+    }
+}
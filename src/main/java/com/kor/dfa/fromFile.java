@@ -1,9 +1,17 @@
 package com.kor.dfa;
 
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashMap;
 
 /**
  * Constructs a DFA from an input file.
@@ -20,20 +28,45 @@ public class fromFile {
      * @param filename The name of the file to read from.
      * @return The DFA constructed from the file.
      * @throws FileNotFoundException If the file is not found.
+     * @throws IOException If the file cannot be read or is not valid UTF-8.
      */
-    public static DFA constructDFA(String filename) throws FileNotFoundException {
-        File file = new File(filename);
-        Scanner in = new Scanner(file);
+    public static DFA constructDFA(String filename) throws IOException {
+        // Read as UTF-8, the encoding DFA.toFile writes, whatever the platform default is
+        try (BufferedReader in = Files.newBufferedReader(Path.of(filename), StandardCharsets.UTF_8)) {
+            return constructDFA(in);
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(filename + " (No such file or directory)");
+        } catch (CharacterCodingException e) {
+            throw new IOException(filename + " is not valid UTF-8.", e);
+        }
+    }
 
+    /**
+     * Constructs a DFA from text in the same format as an input file.
+     *
+     * @param reader The reader to read from.
+     * @return The DFA constructed from the text.
+     * @throws UncheckedIOException If the text cannot be read.
+     */
+    public static DFA constructDFA(Reader reader) {
+        try {
+            return constructDFA(reader instanceof BufferedReader
+                    ? (BufferedReader) reader : new BufferedReader(reader));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static DFA constructDFA(BufferedReader in) throws IOException {
         int startID = 0; // Node ID to start at; default == 0
         ArrayList<Node> nodes = new ArrayList<>(); // All the nodes in the DFA
+        HashMap<Integer, Node> nodesById = new HashMap<>(); // The same nodes by ID, for the pointers
         Node startNode = null; // The start node of the DFA
 
         String alphabet = null; // The alphabet of the DFA
         // Read in the nodes
-        while (in.hasNextLine()){
-            String line = in.nextLine();
-
+        String line;
+        while ((line = in.readLine()) != null) {
             // Ignore comments and empty lines
             if(line.startsWith("#") || line.startsWith("/") || line.isEmpty()){
                 continue;
@@ -45,7 +78,7 @@ public class fromFile {
 
             // Get the start ID
             if(line.startsWith("StartID=")){
-                startID = Integer.parseInt(line.substring(8));
+                startID = Integer.parseInt(line, 8, line.length(), 10);
             }
 
             // Get the nodes. These should always be before pointers!!!
@@ -55,11 +88,12 @@ public class fromFile {
                     startNode = newNode;
                 }
                 nodes.add(newNode);
+                nodesById.put(newNode.getId(), newNode);
             }
 
             // Get the pointers. Pointers should always come after the nodes!!!
             if (line.startsWith("Pointer")) {
-                Pointers.fromString(line, nodes);
+                Pointers.fromString(line, nodesById);
             }
         }
 
@@ -69,4 +103,205 @@ public class fromFile {
             return new DFA(startNode, nodes, alphabet);
         }
     }
+
+    /**
+     * Constructs a DFA from an edge list file.
+     *
+     * @param filename The name of the file to read from.
+     * @return The DFA constructed from the file.
+     * @throws IOException If the file cannot be read.
+     * @see DFABuilder
+     */
+    public static DFA constructDFAFromEdgeList(String filename) throws IOException {
+        return new DFABuilder().readEdgeList(Path.of(filename)).build();
+    }
+
+    /**
+     * Constructs a DFA from a Graphviz DOT file, such as one written by DFA.toDotFile.
+     * Statements must be one per line. Node names must be integer IDs, except for one
+     * point shaped node whose edge marks the start node. Nodes shaped "doublecircle"
+     * are accepting, and each edge label is one character, or several separated by commas.
+     * An "// Alphabet=" comment sets the alphabet.
+     *
+     * @param filename The name of the file to read from.
+     * @return The DFA constructed from the file.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If a line cannot be understood.
+     */
+    public static DFA constructDFAFromDot(String filename) throws IOException {
+        DFABuilder builder = new DFABuilder();
+        String startName = null; // The name of the node whose edge marks the start
+
+        try (BufferedReader in = Files.newBufferedReader(Path.of(filename), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                // The alphabet may end in ';' or whitespace, so read it before the line is trimmed
+                if (line.stripLeading().startsWith("// Alphabet=")) {
+                    builder.setAlphabet(line.stripLeading().substring(12));
+                    continue;
+                }
+                line = line.trim();
+                if (line.endsWith(";")) {
+                    line = line.substring(0, line.length() - 1).trim();
+                }
+                // Ignore comments, braces and graph wide settings
+                if (line.isEmpty() || line.startsWith("//") || line.startsWith("#") || line.equals("}")
+                        || line.startsWith("digraph") || line.startsWith("graph") || line.startsWith("node")
+                        || line.startsWith("edge") || line.startsWith("rankdir")) {
+                    if (line.startsWith("digraph")) {
+                        int open = line.indexOf('"');
+                        int close = line.lastIndexOf('"');
+                        if (open >= 0 && close > open) {
+                            builder.setName(unescapeDot(line.substring(open + 1, close)));
+                        }
+                    }
+                    continue;
+                }
+
+                try {
+                    int arrow = line.indexOf("->");
+                    String attributes = attributes(line);
+                    if (arrow < 0) {
+                        // A node
+                        String nodeName = stripQuotes(nodeName(line));
+                        String shape = attribute(attributes, "shape");
+                        if ("point".equals(shape)) {
+                            startName = nodeName;
+                        } else {
+                            builder.addState(Integer.parseInt(nodeName), "doublecircle".equals(shape));
+                        }
+                        continue;
+                    }
+
+                    // An edge
+                    String from = stripQuotes(line.substring(0, arrow).trim());
+                    String to = stripQuotes(nodeName(line.substring(arrow + 2).trim()));
+                    if (from.equals(startName)) {
+                        builder.setStart(Integer.parseInt(to));
+                        continue;
+                    }
+                    String label = attribute(attributes, "label");
+                    if (label == null || label.isEmpty()) {
+                        throw new IllegalArgumentException("Edge has no label.");
+                    }
+                    if (label.length() == 1) {
+                        builder.addTransition(Integer.parseInt(from), label.charAt(0), Integer.parseInt(to));
+                    } else {
+                        for (String part : label.split(",")) {
+                            if (part.length() != 1) {
+                                throw new IllegalArgumentException("Label \"" + label + "\" is not a list of characters.");
+                            }
+                            builder.addTransition(Integer.parseInt(from), part.charAt(0), Integer.parseInt(to));
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the text between the square brackets of a DOT statement, or "" if there are none.
+     */
+    private static String attributes(String line) {
+        int open = line.indexOf('[');
+        int close = line.lastIndexOf(']');
+        return open >= 0 && close > open ? line.substring(open + 1, close) : "";
+    }
+
+    /**
+     * Gets the node name at the start of a DOT statement, before any attributes.
+     */
+    private static String nodeName(String statement) {
+        int open = statement.indexOf('[');
+        return (open >= 0 ? statement.substring(0, open) : statement).trim();
+    }
+
+    /**
+     * Gets the value of an attribute, or null if it is not set. Values may be quoted
+     * strings, which are unescaped, or plain IDs such as label=a.
+     */
+    private static String attribute(String attributes, String key) {
+        int n = attributes.length();
+        int i = 0;
+        while (i < n) {
+            if (isAttributeSeparator(attributes.charAt(i))) {
+                i++;
+                continue;
+            }
+            // The name, up to the '='
+            int nameStart = i;
+            while (i < n && attributes.charAt(i) != '=' && !isAttributeSeparator(attributes.charAt(i))) {
+                i++;
+            }
+            String name = attributes.substring(nameStart, i);
+            while (i < n && Character.isWhitespace(attributes.charAt(i))) {
+                i++;
+            }
+            if (i == n || attributes.charAt(i) != '=') {
+                continue;
+            }
+            i++;
+            while (i < n && Character.isWhitespace(attributes.charAt(i))) {
+                i++;
+            }
+
+            // The value, quoted or not
+            String value;
+            if (i < n && attributes.charAt(i) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i == n) {
+                        throw new IllegalArgumentException("Unterminated " + name + ".");
+                    }
+                    char c = attributes.charAt(i++);
+                    if (c == '"') {
+                        break;
+                    }
+                    quoted.append(c);
+                    if (c == '\\' && i < n) {
+                        quoted.append(attributes.charAt(i++));
+                    }
+                }
+                value = unescapeDot(quoted.toString());
+            } else {
+                int valueStart = i;
+                while (i < n && !isAttributeSeparator(attributes.charAt(i))) {
+                    i++;
+                }
+                value = attributes.substring(valueStart, i);
+            }
+            if (name.equals(key)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAttributeSeparator(char c) {
+        return c == ',' || c == ';' || Character.isWhitespace(c);
+    }
+
+    private static String stripQuotes(String s) {
+        return s.length() >= 2 && s.startsWith("\"") && s.endsWith("\"") ? s.substring(1, s.length() - 1) : s;
+    }
+
+    private static String unescapeDot(String s) {
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char next = s.charAt(++i);
+                out.append(next == 'n' ? '\n' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
 }
@@ -0,0 +1,207 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Random;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks how much memory the matching, loading and exporting paths allocate, so a change
+ * that starts allocating in a hot path fails the build.
+ *
+ * Allocation is counted per thread with the ThreadMXBean allocation counters, after a
+ * warm up so that the JIT has compiled the code being measured. Matching must allocate
+ * nothing; loading and exporting are allowed a number of bytes per transition.
+ * Budgets can be changed with the system properties dfa.alloc.matchBudget,
+ * dfa.alloc.loadBudget and dfa.alloc.exportBudget. Setting dfa.alloc.jfr to a path also
+ * records the run with Flight Recorder and reports the garbage collections during it.
+ *
+ * @version 1.0
+ * @date 2026-10-19
+ * @see DFA, fromFile
+ */
+class AllocationBudgetTest {
+    private static final int STATES = 2000; // States of the generated DFA
+    private static final int ALPHABET_SIZE = 16; // Characters in its alphabet
+    private static final int INPUTS = 2000; // Inputs matched per round
+    private static final int WARMUP_ROUNDS = 30; // Rounds run before measuring, so the JIT has compiled the code
+    private static final int MEASURED_ROUNDS = 10; // Rounds measured
+    private static final int WARMUP_LOADS = 3; // Loads and exports run before measuring
+
+    private static final double MATCH_BUDGET = budget("dfa.alloc.matchBudget", 0); // Bytes per matched character
+    private static final double LOAD_BUDGET = budget("dfa.alloc.loadBudget", 320); // Bytes per loaded transition
+    private static final double EXPORT_BUDGET = budget("dfa.alloc.exportBudget", 16); // Bytes per exported transition
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Recording recording;
+    private static DFA dfa;
+    private static String[] inputs;
+    private static long characters;
+
+    @BeforeAll
+    static void setUp() throws IOException, ParseException {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported(), "This JVM cannot count allocated bytes per thread.");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        if (System.getProperty("dfa.alloc.jfr") != null) {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.start();
+        }
+
+        Random random = new Random(42);
+        dfa = generate(random);
+        String alphabet = dfa.getAlphabet();
+        inputs = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            char[] input = new char[10 + random.nextInt(500)];
+            for (int j = 0; j < input.length; j++) {
+                input[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            inputs[i] = new String(input);
+            characters += input.length;
+        }
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        if (recording != null) {
+            Path jfr = Path.of(System.getProperty("dfa.alloc.jfr"));
+            recording.stop();
+            recording.dump(jfr);
+            recording.close();
+            reportCollections(jfr);
+        }
+    }
+
+    @Test
+    void inputStringAllocatesNothing() {
+        int accepted = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String input : inputs) {
+                dfa.reset();
+                accepted += dfa.inputString(input) ? 1 : 0;
+            }
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String input : inputs) {
+                dfa.reset();
+                accepted += dfa.inputString(input) ? 1 : 0;
+            }
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        consume(accepted);
+        check("DFA.inputString", allocated / (double) (characters * MEASURED_ROUNDS), "character", MATCH_BUDGET);
+    }
+
+    @Test
+    void acceptsAllocatesNothing() {
+        int accepted = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (String input : inputs) {
+                accepted += dfa.accepts(input) ? 1 : 0;
+            }
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (String input : inputs) {
+                accepted += dfa.accepts(input) ? 1 : 0;
+            }
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        consume(accepted);
+        check("DFA.accepts", allocated / (double) (characters * MEASURED_ROUNDS), "character", MATCH_BUDGET);
+    }
+
+    @Test
+    void exportAndLoadStayWithinBudget() throws IOException {
+        long transitions = (long) STATES * ALPHABET_SIZE;
+        Path file = Files.createTempFile("dfa-alloc", ".txt");
+        try {
+            for (int i = 0; i < WARMUP_LOADS; i++) {
+                dfa.toFile(file.toString(), true);
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            dfa.toFile(file.toString(), true);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            check("DFA.toFile", allocated / (double) transitions, "transition", EXPORT_BUDGET);
+
+            for (int i = 0; i < WARMUP_LOADS; i++) {
+                consume(fromFile.constructDFA(file.toString()).getNodes().size());
+            }
+            before = threads.getCurrentThreadAllocatedBytes();
+            DFA loaded = fromFile.constructDFA(file.toString());
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            consume(loaded.getNodes().size());
+            check("fromFile.constructDFA", allocated / (double) transitions, "transition", LOAD_BUDGET);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Generates a DFA where every state has a transition on every character.
+     */
+    private static DFA generate(Random random) {
+        StringBuilder alphabet = new StringBuilder();
+        for (int c = 0; c < ALPHABET_SIZE; c++) {
+            alphabet.append((char) ('a' + c));
+        }
+        DFABuilder builder = new DFABuilder().setAlphabet(alphabet.toString()).setStart(0);
+        for (int s = 0; s < STATES; s++) {
+            builder.addState(s, random.nextInt(4) == 0);
+        }
+        for (int s = 0; s < STATES; s++) {
+            for (int c = 0; c < ALPHABET_SIZE; c++) {
+                builder.addTransition(s, alphabet.charAt(c), random.nextInt(STATES));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void check(String path, double bytes, String unit, double budget) {
+        System.out.printf("%-24s %10.2f bytes/%s (budget %.2f)%n", path, bytes, unit, budget);
+        assertTrue(bytes <= budget, path + " allocated " + bytes + " bytes/" + unit + ", over the budget of " + budget);
+    }
+
+    private static double budget(String property, double defaultBudget) {
+        String value = System.getProperty(property);
+        return value == null ? defaultBudget : Double.parseDouble(value);
+    }
+
+    /**
+     * Prints the garbage collections in a recording.
+     */
+    private static void reportCollections(Path jfr) throws IOException {
+        int collections = 0;
+        Duration pauses = Duration.ZERO;
+        for (RecordedEvent event : RecordingFile.readAllEvents(jfr)) {
+            if (event.getEventType().getName().equals("jdk.GarbageCollection")) {
+                collections++;
+                pauses = pauses.plus(event.getDuration("sumOfPauses"));
+            }
+        }
+        System.out.println("Recording written to " + jfr + ": " + collections + " garbage collections, "
+                + pauses.toMillis() + " ms paused.");
+    }
+
+    private static volatile int sink; // Keeps results alive so the JIT cannot drop the work
+
+    private static void consume(int value) {
+        sink += value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ApproximateMatcherTest {
+    private static final String[] WORDS = {"hello", "world", "help", "he", "abcabc"};
+
+    @Test
+    void distanceMatchesLevenshteinToTheClosestWord() {
+        DFA dfa = TestAutomata.words(WORDS);
+        Random random = new Random(1);
+        for (int k = 0; k <= 3; k++) {
+            ApproximateMatcher matcher = new ApproximateMatcher(dfa, k);
+            for (int i = 0; i < 2000; i++) {
+                String input = TestAutomata.randomString(random, "helowrdpabcz", random.nextInt(9));
+                int best = Integer.MAX_VALUE;
+                for (String word : WORDS) {
+                    best = Math.min(best, levenshtein(input, word));
+                }
+                assertEquals(best <= k ? best : -1, matcher.distance(input), input + " with k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void insertionsFollowCycles() {
+        // (ab)*
+        DFA dfa = new DFABuilder().setStart(0).addState(0, true)
+                .addTransition(0, 'a', 1).addTransition(1, 'b', 0).build();
+        ApproximateMatcher matcher = new ApproximateMatcher(dfa, 3);
+        assertEquals(0, matcher.distance(""));
+        assertEquals(0, matcher.distance("abab"));
+        assertEquals(1, matcher.distance("aab"));
+        assertEquals(2, matcher.distance("ba"));
+        assertEquals(1, matcher.distance("aba"));
+        assertEquals(2, matcher.distance("bbbb"));
+        assertEquals(1, matcher.distance("x"));
+        assertEquals(1, matcher.distance("abxab"));
+    }
+
+    @Test
+    void rejectsNegativeDistance() {
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateMatcher(TestAutomata.words("a"), -1));
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                d[i][j] = Math.min(substitute, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,85 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CountingDFATest {
+    @Test
+    void repeatAcceptsOnlyLengthsInBounds() {
+        CountingDFA digits = CountingDFA.repeat("0123456789", 3, 500);
+        assertFalse(digits.matches("12"));
+        assertTrue(digits.matches("123"));
+        assertTrue(digits.matches("1".repeat(500)));
+        assertFalse(digits.matches("1".repeat(501)));
+        assertFalse(digits.matches("12a"));
+    }
+
+    @Test
+    void toDFAAcceptsTheSameStrings() {
+        CountingDFA digits = CountingDFA.repeat("0123456789", 3, 50);
+        DFA dfa = digits.toDFA(1000);
+        assertNotNull(dfa);
+        for (int n = 0; n < 60; n++) {
+            String input = "7".repeat(n);
+            assertEquals(digits.matches(input), dfa.accepts(input), "length " + n);
+        }
+        assertFalse(dfa.accepts("12x"));
+    }
+
+    @Test
+    void toDFAGivesUpOverTheLimit() {
+        assertNull(CountingDFA.repeat("ab", 0, 500).toDFA(100));
+    }
+
+    @Test
+    void guardsAndResetsChooseTransitions() {
+        // a{2,}b, repeated: the counter is reset after every b
+        CountingDFA automaton = new CountingDFA();
+        int count = automaton.addCounter();
+        automaton.addState(0, false).addState(1, true).setStart(0);
+        automaton.addTransition(0, 'a', 0, null, CountingDFA.Update.increment(count));
+        automaton.addTransition(0, 'b', 1, CountingDFA.Guard.atLeast(count, 2), CountingDFA.Update.reset(count));
+        automaton.addTransition(1, 'a', 0, null, CountingDFA.Update.increment(count));
+
+        assertFalse(automaton.matches("ab"));
+        assertTrue(automaton.matches("aab"));
+        assertTrue(automaton.matches("aaaaaaab"));
+        assertTrue(automaton.matches("aabaab"));
+        assertFalse(automaton.matches("aabab"));
+        DFA dfa = automaton.toDFA(10);
+        for (String input : new String[]{"ab", "aab", "aaab", "aabaab", "aabab", ""}) {
+            assertEquals(automaton.matches(input), dfa.accepts(input), input);
+        }
+    }
+
+    @Test
+    void rejectsTransitionsThatCanNeverBeTaken() {
+        CountingDFA automaton = new CountingDFA();
+        automaton.addState(0, true).setStart(0).addTransition(0, 'a', 0);
+        assertThrows(IllegalArgumentException.class, () -> automaton.addTransition(0, 'a', 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> automaton.addTransition(0, 'b', 0, CountingDFA.Guard.below(3, 1)));
+    }
+
+    @Test
+    void repeatZeroTimesAcceptsOnlyTheEmptyString() {
+        CountingDFA none = CountingDFA.repeat("ab", 0, 0);
+        assertTrue(none.matches(""));
+        assertFalse(none.matches("a"));
+        assertTrue(none.toDFA(10).accepts(""));
+        assertFalse(none.toDFA(10).accepts("a"));
+    }
+
+    @Test
+    void guardsRejectNegativeBounds() {
+        assertThrows(IllegalArgumentException.class, () -> CountingDFA.Guard.atLeast(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> CountingDFA.Guard.between(0, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> CountingDFA.repeat("a", 3, 2));
+    }
+}
@@ -0,0 +1,112 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DFABatchTest {
+    private static final String ALPHABET = "ab";
+
+    private static Path directory;
+    private static DFA even; // Even number of a's
+    private static DFA endsB; // Ends in b
+    private static String evenFile;
+    private static String endsBFile;
+    private static String inputFile;
+    private static List<String> inputs;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        directory = Files.createTempDirectory("dfa-batch");
+        even = new DFABuilder().setStart(0).addState(0, true)
+                .addTransition(0, 'a', 1).addTransition(0, 'b', 0)
+                .addTransition(1, 'a', 0).addTransition(1, 'b', 1).build();
+        endsB = new DFABuilder().setStart(0).addState(1, true)
+                .addTransition(0, 'a', 0).addTransition(0, 'b', 1)
+                .addTransition(1, 'a', 0).addTransition(1, 'b', 1).build();
+        evenFile = directory.resolve("even.dfa").toString();
+        endsBFile = directory.resolve("endsb.dfa").toString();
+        even.toFile(evenFile, true);
+        endsB.toFile(endsBFile, true);
+
+        // Several chunks, so threads finish them out of order
+        Random random = new Random(27);
+        inputs = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            inputs.add(TestAutomata.randomString(random, ALPHABET, random.nextInt(12)));
+        }
+        inputFile = directory.resolve("inputs.txt").toString();
+        Files.write(Path.of(inputFile), inputs, StandardCharsets.UTF_8);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void threadsKeepTheInputOrder() throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (String input : inputs) {
+            expected.add((even.accepts(input) ? "accept" : "reject") + "\t" + input);
+        }
+        assertEquals(expected, run("-d", evenFile, "-p", "-j", "1"));
+        assertEquals(expected, run("-d", evenFile, "-p", "-j", "4"));
+    }
+
+    @Test
+    void namesEveryDFAThatAccepts() throws IOException {
+        List<String> expected = new ArrayList<>();
+        for (String input : inputs) {
+            ArrayList<String> names = new ArrayList<>();
+            if (even.accepts(input)) {
+                names.add("even.dfa");
+            }
+            if (endsB.accepts(input)) {
+                names.add("endsb.dfa");
+            }
+            expected.add(names.isEmpty() ? "-" : String.join(",", names));
+        }
+        assertEquals(expected, run("-d", evenFile, "-d", endsBFile, "-j", "3"));
+    }
+
+    @Test
+    void cacheGivesTheSameResults() throws IOException {
+        assertEquals(run("-d", evenFile, "-d", endsBFile),
+                run("-d", evenFile, "-d", endsBFile, "--cache", "16", "-j", "2"));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertEquals(2, DFABatch.run(new String[]{"-i", inputFile}));
+        assertEquals(2, DFABatch.run(new String[]{"-d", evenFile, "-j", "0"}));
+        assertEquals(2, DFABatch.run(new String[]{"-d", evenFile, "--bogus"}));
+    }
+
+    private static List<String> run(String... args) throws IOException {
+        Path output = Files.createTempFile(directory, "out", ".txt");
+        String[] all = new String[args.length + 4];
+        System.arraycopy(args, 0, all, 0, args.length);
+        all[args.length] = "-i";
+        all[args.length + 1] = inputFile;
+        all[args.length + 2] = "-o";
+        all[args.length + 3] = output.toString();
+        assertEquals(0, DFABatch.run(all));
+        return Files.readAllLines(output, StandardCharsets.UTF_8);
+    }
+}
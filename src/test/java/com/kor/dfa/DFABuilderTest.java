@@ -0,0 +1,74 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class DFABuilderTest {
+    @Test
+    void readsEdgesWrittenByOtherTools() {
+        DFA dfa = new DFABuilder().addLines(Stream.of(
+                "# comment",
+                "StartID=0",
+                "Accepting=1, 2",
+                "0,a,1",
+                "0, b, 2",
+                "1,\"c\",0",
+                "1\td\t2",
+                "2, \",\" , 0",
+                "2,\"\"\"\",1",
+                "0, ,0")).build();
+        assertEquals("abcd,\" ", dfa.getAlphabet());
+        assertTrue(dfa.accepts("a"));
+        assertTrue(dfa.accepts("b"));
+        assertTrue(dfa.accepts("  acb"));
+        assertTrue(dfa.accepts("ad,a"));
+        assertTrue(dfa.accepts("b\""));
+        assertFalse(dfa.accepts(""));
+        assertFalse(dfa.accepts("ac"));
+    }
+
+    @Test
+    void rejectsMalformedEdges() {
+        for (String line : new String[]{"0,a", "0,ab,1", "0", "0,\"ab\",1", "0,  ,1"}) {
+            DFABuilder builder = new DFABuilder();
+            assertThrows(IllegalArgumentException.class, () -> builder.addLine(line), line);
+        }
+    }
+
+    @Test
+    void rejectsDuplicateTransitions() {
+        DFABuilder builder = new DFABuilder().addTransition(0, 'a', 1);
+        assertThrows(IllegalArgumentException.class, () -> builder.addTransition(0, 'a', 2));
+        builder.addTransition(1, 'a', 2);
+    }
+
+    @Test
+    void rejectsCharactersOutsideTheAlphabet() {
+        DFABuilder builder = new DFABuilder().setAlphabet("ab").addTransition(0, 'b', 0);
+        assertThrows(IllegalArgumentException.class, () -> builder.addTransition(0, 'c', 0));
+        assertThrows(IllegalStateException.class, () -> builder.setAlphabet("abc"));
+        assertEquals("ab", builder.setStart(0).build().getAlphabet());
+    }
+
+    @Test
+    void reportsTheLineOfAnError() throws IOException {
+        Path file = Files.createTempFile("dfa", ".csv");
+        try {
+            Files.writeString(file, "StartID=0\n0,a,1\n\n0,a,2\n");
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new DFABuilder().readEdgeList(file));
+            assertTrue(e.getMessage().startsWith("Line 4: "), e.getMessage());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class DFAServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void concurrentMatchesAgreeWithTheDFA() throws Exception {
+        DFA dfa = TestAutomata.random(30, "abc", 21);
+        dfa.setName("random");
+        DFAServer server = new DFAServer(4, 2, 64, 1024, 10, 1000);
+        server.addDFA(dfa);
+        int port = server.start(0);
+        try {
+            Random random = new Random(22);
+            List<String> inputs = new ArrayList<>();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String input = TestAutomata.randomString(random, "abc", random.nextInt(40));
+                inputs.add(input);
+                responses.add(client.sendAsync(post(port, "/match/random", input), HttpResponse.BodyHandlers.ofString()));
+            }
+            for (int i = 0; i < inputs.size(); i++) {
+                HttpResponse<String> response = responses.get(i).get();
+                assertEquals(200, response.statusCode());
+                assertEquals(dfa.accepts(inputs.get(i)) ? "accept\n" : "reject\n", response.body(), inputs.get(i));
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void batchesAndErrors() throws Exception {
+        DFA dfa = TestAutomata.words("ab", "abc");
+        dfa.setName("words");
+        DFAServer server = new DFAServer(2, 2, 64, 1024, 3, 4);
+        server.addDFA(dfa);
+        int port = server.start(0);
+        try {
+            assertEquals("accept\nreject\naccept\n", send(post(port, "/batch/words", "ab\na\nabc\n")).body());
+            assertEquals(413, send(post(port, "/batch/words", "ab\nab\nab\nab\n")).statusCode());
+            assertEquals(404, send(post(port, "/match/missing", "ab")).statusCode());
+            assertEquals(413, send(post(port, "/match/words", "abcab")).statusCode());
+            assertEquals("accept\n", send(post(port, "/match/words", "abc")).body());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void refusesMatchesOnceTheQueueIsFull() throws Exception {
+        DFA dfa = TestAutomata.words("ab");
+        CountDownLatch matching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // One handler thread and a queue of two, with the only batch thread held up
+        DFAServer server = new DFAServer(1, 1, 1, 2, 10, 100);
+        server.addMatcher("held", new InterleavedMatcher(dfa.compile()) {
+            @Override
+            public boolean[] matchAll(CharSequence[] inputs) {
+                matching.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.matchAll(inputs);
+            }
+        });
+        int port = server.start(0);
+        try {
+            List<CompletableFuture<HttpResponse<String>>> accepted = new ArrayList<>();
+            accepted.add(client.sendAsync(post(port, "/match/held", "ab"), HttpResponse.BodyHandlers.ofString()));
+            matching.await();
+            accepted.add(client.sendAsync(post(port, "/match/held", "a"), HttpResponse.BodyHandlers.ofString()));
+            accepted.add(client.sendAsync(post(port, "/match/held", "ab"), HttpResponse.BodyHandlers.ofString()));
+            while (server.getPendingCount() < 2) {
+                Thread.sleep(1);
+            }
+            assertEquals(503, send(post(port, "/match/held", "ab")).statusCode());
+
+            release.countDown();
+            assertEquals("accept\n", accepted.get(0).get().body());
+            assertEquals("reject\n", accepted.get(1).get().body());
+            assertEquals("accept\n", accepted.get(2).get().body());
+        } finally {
+            release.countDown();
+            server.stop();
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest post(int port, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class DFATest {
+    @Test
+    void changesToNodesAddedLaterAreSeen() {
+        // The steps the modify menu takes: add nodes 2 and 3, link 2 -> 3, then 1 -> 2
+        DFA dfa = new DFABuilder().setStart(0).addTransition(0, 'a', 1).build();
+        Node one = dfa.getNodes().get(1);
+        Node two = new Node(2);
+        Node three = new Node(3);
+        dfa.getNodes().add(two);
+        dfa.getNodes().add(three);
+        two.addPointer('c', three);
+        one.addPointer('b', two);
+        assertFalse(dfa.accepts("abc"));
+
+        three.setAcceptingState(true);
+        assertTrue(dfa.accepts("abc"));
+        dfa.reset();
+        assertTrue(dfa.inputString("abc"));
+    }
+
+    @Test
+    void changesToNodesAddedWithAddNodeAreSeen() {
+        DFA dfa = new DFABuilder().setStart(0).addTransition(0, 'a', 1).build();
+        dfa.enableCache(16);
+        Node two = new Node(2);
+        dfa.addNode(two);
+        assertFalse(dfa.accepts("ab"));
+        dfa.getNodes().get(1).addPointer('b', two);
+        assertFalse(dfa.accepts("ab"));
+        two.setAcceptingState(true);
+        assertTrue(dfa.accepts("ab"));
+    }
+
+    @Test
+    void everyDFASharingANodeSeesItsChanges() {
+        DFABuilder builder = new DFABuilder().setStart(0).addTransition(0, 'a', 1);
+        DFA first = builder.build();
+        DFA second = builder.build();
+        Transducer transducer = new Transducer(first.getStartNode(), first.getNodes());
+        first.enableCache(16);
+        second.enableCache(16);
+        for (DFA dfa : new DFA[]{first, second, transducer}) {
+            assertFalse(dfa.accepts("ab"));
+        }
+
+        Node one = first.getNodes().get(1);
+        Node two = new Node(2, true);
+        one.addPointer('b', two);
+        for (DFA dfa : new DFA[]{first, second, transducer}) {
+            assertTrue(dfa.accepts("ab"));
+        }
+        two.setAcceptingState(false);
+        for (DFA dfa : new DFA[]{first, second, transducer}) {
+            assertFalse(dfa.accepts("ab"));
+        }
+    }
+
+    @Test
+    void tablesCompiledDuringAChangeAreNotKept() throws InterruptedException {
+        // Keep flipping the only accepting state while another thread matches; once the
+        // changes stop, accepts must agree with the final graph
+        DFA dfa = new DFABuilder().setStart(0).addTransition(0, 'a', 1).build();
+        Node one = dfa.getNodes().get(1);
+        Thread matcher = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                dfa.accepts("a");
+            }
+        });
+        matcher.start();
+        for (int i = 0; i < 20000; i++) {
+            one.setAcceptingState(i % 2 == 0);
+        }
+        one.setAcceptingState(true);
+        matcher.join();
+        assertTrue(dfa.accepts("a"));
+    }
+}
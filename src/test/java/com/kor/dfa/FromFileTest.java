@@ -0,0 +1,107 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class FromFileTest {
+    @Test
+    void dotKeepsAnAlphabetEndingInASemicolon() throws IOException {
+        DFA dfa = new DFABuilder().setAlphabet("ab;").setStart(0).addState(1, true)
+                .addTransition(0, ';', 1).addTransition(1, 'a', 0).build();
+        DFA loaded = roundTripDot(dfa);
+        assertEquals("ab;", loaded.getAlphabet());
+        assertTrue(loaded.accepts(";"));
+        assertTrue(loaded.accepts(";a;"));
+        assertFalse(loaded.accepts("a"));
+    }
+
+    @Test
+    void dotRoundTripsAwkwardLabels() throws IOException {
+        DFA dfa = new DFABuilder().setStart(0).addState(1, true)
+                .addTransition(0, '"', 1).addTransition(1, '\\', 0).addTransition(0, ',', 0).build();
+        DFA loaded = roundTripDot(dfa);
+        for (String input : new String[]{"\"", "\"\\\"", ",\"", "", "\\"}) {
+            assertEquals(dfa.accepts(input), loaded.accepts(input), input);
+        }
+    }
+
+    @Test
+    void dotAcceptsUnquotedAttributes() throws IOException {
+        Path file = Files.createTempFile("dfa", ".dot");
+        try {
+            Files.writeString(file, String.join("\n",
+                    "digraph G {",
+                    "  start [shape = point];",
+                    "  0 [shape=circle];",
+                    "  1 [shape=doublecircle, color=red];",
+                    "  start -> 0;",
+                    "  0 -> 1 [label=a];",
+                    "  1 -> 0 [color=blue label = b];",
+                    "  1 -> 1 [label=\"c,d\"];",
+                    "}"));
+            DFA loaded = fromFile.constructDFAFromDot(file.toString());
+            assertTrue(loaded.accepts("a"));
+            assertTrue(loaded.accepts("acdba"));
+            assertFalse(loaded.accepts("ab"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void textFormatIsReadAsUtf8() throws IOException {
+        DFA dfa = new DFABuilder().setAlphabet("a\u00e9\u20ac").setStart(0).addState(1, true)
+                .addTransition(0, '\u00e9', 1).addTransition(1, '\u20ac', 0).build();
+        Path file = Files.createTempFile("dfa", ".txt");
+        try {
+            dfa.toFile(file.toString(), true);
+            // Written as UTF-8 whatever the platform default is
+            assertTrue(Files.readString(file, StandardCharsets.UTF_8).contains("Alphabet=a\u00e9\u20ac"));
+            DFA loaded = fromFile.constructDFA(file.toString());
+            assertEquals("a\u00e9\u20ac", loaded.getAlphabet());
+            assertTrue(loaded.accepts("\u00e9\u20ac\u00e9"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void invalidUtf8IsACheckedError() throws IOException {
+        Path file = Files.createTempFile("dfa", ".txt");
+        try {
+            // Written as Latin-1, where \u00e9 is the single byte 0xE9, which is not valid UTF-8
+            Files.writeString(file, "Alphabet=a\u00e9\nStartID=0\n"
+                    + "Node{ID=0;AcceptingState=true;Pointers=;}\n", StandardCharsets.ISO_8859_1);
+            IOException e = assertThrows(IOException.class, () -> fromFile.constructDFA(file.toString()));
+            assertTrue(e.getMessage().contains("UTF-8"), e.getMessage());
+            assertEquals(1, DFABatch.run(new String[]{"-d", file.toString()}));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void missingFileIsReported() {
+        assertThrows(FileNotFoundException.class, () -> fromFile.constructDFA("/nonexistent/dfa.txt"));
+    }
+
+    private static DFA roundTripDot(DFA dfa) throws IOException {
+        Path file = Files.createTempFile("dfa", ".dot");
+        try {
+            dfa.toDotFile(file.toString(), true);
+            return fromFile.constructDFAFromDot(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
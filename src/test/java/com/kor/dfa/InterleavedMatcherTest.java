@@ -0,0 +1,25 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class InterleavedMatcherTest {
+    @Test
+    void matchAllAgreesWithTheDFA() {
+        CompiledDFA dfa = TestAutomata.random(60, "abc", 11).compile();
+        InterleavedMatcher matcher = new InterleavedMatcher(dfa);
+        Random random = new Random(12);
+        // Lengths vary widely so lanes finish at different times; x is outside the alphabet
+        String[] inputs = new String[1001];
+        boolean[] expected = new boolean[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = TestAutomata.randomString(random, "abcx".substring(0, random.nextInt(10) == 0 ? 4 : 3),
+                    random.nextInt(i % 7 == 0 ? 300 : 10));
+            expected[i] = dfa.matches(inputs[i]);
+        }
+        assertArrayEquals(expected, matcher.matchAll(inputs));
+    }
+}
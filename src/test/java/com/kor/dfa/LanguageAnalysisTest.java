@@ -0,0 +1,118 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LanguageAnalysisTest {
+    @Test
+    void countsEveryStringOverTheAlphabet() {
+        // [ab]*, so 2^n strings of length n, well past 64 bits
+        CompiledDFA dfa = new DFABuilder().setStart(0).addState(0, true)
+                .addTransition(0, 'a', 0).addTransition(0, 'b', 0).build().compile();
+        BigInteger[] counts = LanguageAnalysis.countByLength(dfa, 200);
+        for (int n = 0; n <= 200; n++) {
+            assertEquals(BigInteger.TWO.pow(n), counts[n], "length " + n);
+        }
+    }
+
+    @Test
+    void modularCountsAgreeWithExactCounts() {
+        CompiledDFA dfa = TestAutomata.random(50, "abc", 7).compile();
+        long modulus = 1_000_000_007L;
+        BigInteger[] exact = LanguageAnalysis.countByLength(dfa, 100);
+        long[] modular = LanguageAnalysis.countByLength(dfa, 100, modulus);
+        for (int n = 0; n <= 100; n++) {
+            assertEquals(exact[n].mod(BigInteger.valueOf(modulus)).longValue(), modular[n], "length " + n);
+        }
+    }
+
+    @Test
+    void finiteLanguages() {
+        CompiledDFA words = TestAutomata.words("cat", "car", "dog").compile();
+        assertFalse(LanguageAnalysis.isEmpty(words));
+        assertTrue(LanguageAnalysis.isFinite(words));
+        assertEquals("car", LanguageAnalysis.shortestAccepted(words));
+        assertEquals(BigInteger.valueOf(3), LanguageAnalysis.countByLength(words, 3)[3]);
+
+        // A cycle that can never reach an accepting state does not make the language infinite
+        CompiledDFA deadCycle = new DFABuilder().setStart(0).addState(1, true)
+                .addTransition(0, 'a', 1).addTransition(0, 'b', 2).addTransition(2, 'b', 2).build().compile();
+        assertTrue(LanguageAnalysis.isFinite(deadCycle));
+    }
+
+    @Test
+    void infiniteAndEmptyLanguages() {
+        CompiledDFA infinite = new DFABuilder().setStart(0).addState(1, true)
+                .addTransition(0, 'a', 1).addTransition(1, 'a', 0).build().compile();
+        assertFalse(LanguageAnalysis.isFinite(infinite));
+        assertEquals("a", LanguageAnalysis.shortestAccepted(infinite));
+
+        CompiledDFA empty = new DFABuilder().setStart(0).addTransition(0, 'a', 1).build().compile();
+        assertTrue(LanguageAnalysis.isEmpty(empty));
+        assertNull(LanguageAnalysis.shortestAccepted(empty));
+        assertTrue(LanguageAnalysis.sampler(empty, 3).isEmpty());
+    }
+
+    @Test
+    void samplesAreAcceptedAndRoughlyUniform() {
+        // Words of length 4 where one branch holds 1 string and the other 8
+        CompiledDFA dfa = TestAutomata.words("xaaa", "yaaa", "yaab", "yaba", "yabb", "ybaa", "ybab", "ybba", "ybbb")
+                .compile();
+        LanguageAnalysis.Sampler sampler = LanguageAnalysis.sampler(dfa, 4);
+        assertFalse(sampler.isEmpty());
+        Random random = new Random(3);
+        HashMap<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < 9000; i++) {
+            String sample = sampler.next(random);
+            assertTrue(dfa.matches(sample), sample);
+            seen.merge(sample, 1, Integer::sum);
+        }
+        assertEquals(9, seen.size());
+        for (int count : seen.values()) {
+            assertTrue(count > 800 && count < 1200, "count " + count);
+        }
+        assertTrue(LanguageAnalysis.sampler(dfa, 3).isEmpty());
+    }
+
+    @Test
+    void samplesWhenCountsAreFarApart() {
+        // A 240 character literal prefix, then [a-z]*: at length 300 the states along the
+        // prefix have about 1e339 times fewer strings than the state after it
+        String prefix = "q".repeat(240);
+        DFABuilder builder = new DFABuilder().setStart(0).addState(240, true);
+        for (int i = 0; i < 240; i++) {
+            builder.addTransition(i, prefix.charAt(i), i + 1);
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            builder.addTransition(240, c, 240);
+        }
+        CompiledDFA dfa = builder.build().compile();
+        assertTrue(LanguageAnalysis.countByLength(dfa, 300)[300].bitLength() > 280);
+
+        LanguageAnalysis.Sampler sampler = LanguageAnalysis.sampler(dfa, 300);
+        assertFalse(sampler.isEmpty());
+        Random random = new Random(4);
+        int[] letters = new int[26];
+        for (int i = 0; i < 200; i++) {
+            String sample = sampler.next(random);
+            assertEquals(300, sample.length());
+            assertTrue(sample.startsWith(prefix));
+            assertTrue(dfa.matches(sample));
+            for (int j = 240; j < 300; j++) {
+                letters[sample.charAt(j) - 'a']++;
+            }
+        }
+        // The suffix is uniform over a-z
+        for (int count : letters) {
+            assertTrue(count > 300 && count < 650, "count " + count);
+        }
+    }
+}
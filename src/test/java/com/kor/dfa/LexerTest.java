@@ -0,0 +1,111 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class LexerTest {
+
+    @Test
+    void backtracksToTheLongestMatch() {
+        assertEquals(Arrays.asList("A a@0", "AB aab@2", "A a@7", "A a@8"), tokens("a aab  aa"));
+        assertThrows(IllegalArgumentException.class, () -> tokens("ab b"));
+    }
+
+    @Test
+    void readerAgreesWithStringAcrossBuffers() throws IOException {
+        // Longer than the read buffer, with lookahead that has to be walked again after backtracking
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            input.append(i % 7 == 0 ? "aaab " : "a ");
+        }
+        input.append("a".repeat(9000));
+        ArrayList<String> read = new ArrayList<>();
+        lexer().tokenize(new StringReader(input.toString()),
+                (token, text, offset, output) -> read.add(token + " " + text + "@" + offset));
+        assertEquals(tokens(input), read);
+        assertEquals(3000 + 9000, read.size());
+    }
+
+    @Test
+    void longRunsWithoutAMatchAreWalkedOnce() throws IOException {
+        // Every a is its own token, but each one looks ahead for a b to the end of the run
+        String input = "a".repeat(200_000);
+        int[] count = {0};
+        lexer().tokenize(input, (token, text, offset, output) -> count[0]++);
+        assertEquals(input.length(), count[0]);
+        count[0] = 0;
+        lexer().tokenize(new StringReader(input), (token, text, offset, output) -> count[0]++);
+        assertEquals(input.length(), count[0]);
+    }
+
+    @Test
+    void tokensCarryTheOutputsOfTheirPointers() throws IOException {
+        // Numbers, with an optional fraction, translated digit by digit, and dots; spaces are skipped
+        Node start = new Node(0, false);
+        Node number = new TokenNode(1, "NUM");
+        Node point = new Node(2, false);
+        Node fraction = new TokenNode(3, "FRAC");
+        Node space = new Node(4, true);
+        Node dot = new TokenNode(5, "DOT");
+        String[] names = {"zero", "one", "two"};
+        for (int d = 0; d < names.length; d++) {
+            new OutputPointers((char) ('0' + d), number, start, names[d] + " ");
+            new OutputPointers((char) ('0' + d), number, number, names[d] + " ");
+            new OutputPointers((char) ('0' + d), fraction, point, names[d] + " ");
+            new OutputPointers((char) ('0' + d), fraction, fraction, names[d] + " ");
+        }
+        new OutputPointers('.', point, number, "point ");
+        new OutputPointers('.', dot, start, "dot ");
+        new OutputPointers(' ', space, start, "skipped");
+        Transducer transducer = new Transducer(start,
+                new ArrayList<>(Arrays.asList(start, number, point, fraction, space, dot)));
+
+        // "12." backtracks over the point, whose output must not be kept
+        String input = "12.0 2 12. 1";
+        ArrayList<String> expected = new ArrayList<>(Arrays.asList(
+                "FRAC 12.0@0 one two point zero ", "NUM 2@5 two ", "NUM 12@7 one two ", "DOT .@9 dot ",
+                "NUM 1@11 one "));
+        ArrayList<String> tokens = new ArrayList<>();
+        transducer.lexer().tokenize(input,
+                (token, text, offset, output) -> tokens.add(token + " " + text + "@" + offset + " " + output));
+        assertEquals(expected, tokens);
+
+        tokens.clear();
+        transducer.lexer().tokenize(new StringReader(input),
+                (token, text, offset, output) -> tokens.add(token + " " + text + "@" + offset + " " + output));
+        assertEquals(expected, tokens);
+        assertEquals("one two point zero ", transducer.transduce("12.0"));
+    }
+
+    /**
+     * Tokens a (A), a+b (AB) and spaces, which are skipped.
+     */
+    private static Lexer lexer() {
+        Node start = new Node(0, false);
+        Node a = new TokenNode(1, "A");
+        Node more = new Node(2, false);
+        Node ab = new TokenNode(3, "AB");
+        Node space = new Node(4, true);
+        start.addPointer('a', a);
+        start.addPointer(' ', space);
+        a.addPointer('a', more);
+        a.addPointer('b', ab);
+        more.addPointer('a', more);
+        more.addPointer('b', ab);
+        space.addPointer(' ', space);
+        return new Transducer(start, new ArrayList<>(Arrays.asList(start, a, more, ab, space))).lexer();
+    }
+
+    private static ArrayList<String> tokens(CharSequence input) {
+        ArrayList<String> tokens = new ArrayList<>();
+        lexer().tokenize(input, (token, text, offset, output) -> tokens.add(token + " " + text + "@" + offset));
+        return tokens;
+    }
+}
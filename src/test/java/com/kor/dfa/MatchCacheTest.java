@@ -0,0 +1,43 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MatchCacheTest {
+    @Test
+    void evictsTheLeastRecentlyUsed() {
+        MatchCache cache = new MatchCache(2);
+        cache.put("a", true, cache.getGeneration());
+        cache.put("b", false, cache.getGeneration());
+        assertEquals(Boolean.TRUE, cache.get("a")); // b is now the least recently used
+        cache.put("c", true, cache.getGeneration());
+        assertNull(cache.get("b"));
+        assertEquals(Boolean.TRUE, cache.get("a"));
+        assertEquals(Boolean.TRUE, cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void resultsFromBeforeAClearAreNotStored() {
+        MatchCache cache = new MatchCache(4);
+        long generation = cache.getGeneration();
+        cache.clear();
+        cache.put("a", true, generation);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void changingTheDFAClearsItsCache() {
+        DFA dfa = new DFABuilder().setStart(0).addTransition(0, 'a', 1).build();
+        dfa.enableCache(16);
+        assertFalse(dfa.accepts("a"));
+        dfa.getNodes().get(1).setAcceptingState(true);
+        assertTrue(dfa.accepts("a"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.kor.dfa;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class PrefixMatcherTest {
+    private static final String ALPHABET = "abcd";
+
+    @Test
+    void agreesWithTheDFAWhileEvicting() {
+        CompiledDFA dfa = TestAutomata.random(40, ALPHABET, 5).compile();
+        // Few checkpoints, so eviction happens many times
+        PrefixMatcher matcher = new PrefixMatcher(dfa, 4, 32);
+        String[] inputs = inputs(new Random(9), 5000);
+        for (String input : inputs) {
+            assertEquals(dfa.matches(input), matcher.matches(input), input);
+            assertTrue(matcher.getCheckpointCount() <= 32);
+        }
+        assertTrue(matcher.getCharactersSkipped() > 0);
+    }
+
+    @Test
+    void keepsTheLimitWhenOneInputIsDeeperThanIt() {
+        // The same long input again and again: its path alone is deeper than the limit
+        CompiledDFA dfa = TestAutomata.random(40, ALPHABET, 7).compile();
+        String input = TestAutomata.randomString(new Random(11), ALPHABET, 4000);
+        for (int limit : new int[]{1, 2, 8, 9}) {
+            PrefixMatcher matcher = new PrefixMatcher(dfa, 4, limit);
+            for (int i = 0; i < 200; i++) {
+                assertEquals(dfa.matches(input), matcher.matches(input));
+                assertTrue(matcher.getCheckpointCount() <= limit, limit + ": " + matcher.getCheckpointCount());
+            }
+            assertTrue(matcher.getCharactersSkipped() > 0 || limit == 1);
+        }
+    }
+
+    @Test
+    void matchSortedAgreesWithTheDFA() {
+        CompiledDFA dfa = TestAutomata.random(40, ALPHABET, 6).compile();
+        String[] inputs = inputs(new Random(10), 3000);
+        Arrays.sort(inputs);
+        boolean[] expected = new boolean[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            expected[i] = dfa.matches(inputs[i]);
+        }
+        assertArrayEquals(expected, PrefixMatcher.matchSorted(dfa, inputs));
+    }
+
+    /**
+     * Inputs made of a few shared prefixes followed by random suffixes.
+     */
+    private static String[] inputs(Random random, int count) {
+        String[] prefixes = new String[8];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = TestAutomata.randomString(random, ALPHABET, 20 + random.nextInt(80));
+        }
+        String[] inputs = new String[count];
+        for (int i = 0; i < count; i++) {
+            inputs[i] = prefixes[random.nextInt(prefixes.length)]
+                    + TestAutomata.randomString(random, ALPHABET, random.nextInt(30));
+        }
+        return inputs;
+    }
+}
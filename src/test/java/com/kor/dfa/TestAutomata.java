@@ -0,0 +1,64 @@
+package com.kor.dfa;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Small automata shared by the tests.
+ */
+final class TestAutomata {
+    private TestAutomata() {
+    }
+
+    /**
+     * Builds a DFA accepting exactly the given words, shaped as a trie.
+     */
+    static DFA words(String... words) {
+        DFABuilder builder = new DFABuilder().setStart(0).addState(0, false);
+        HashMap<String, Integer> ids = new HashMap<>();
+        ids.put("", 0);
+        for (String word : words) {
+            for (int i = 1; i <= word.length(); i++) {
+                String prefix = word.substring(0, i);
+                if (!ids.containsKey(prefix)) {
+                    ids.put(prefix, ids.size());
+                    builder.addTransition(ids.get(word.substring(0, i - 1)), word.charAt(i - 1), ids.get(prefix));
+                }
+            }
+        }
+        for (String word : words) {
+            builder.addState(ids.get(word), true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds a DFA with random transitions, missing about one in five.
+     */
+    static DFA random(int states, String alphabet, long seed) {
+        Random random = new Random(seed);
+        DFABuilder builder = new DFABuilder().setAlphabet(alphabet).setStart(0);
+        for (int s = 0; s < states; s++) {
+            builder.addState(s, random.nextInt(3) == 0);
+        }
+        for (int s = 0; s < states; s++) {
+            for (int c = 0; c < alphabet.length(); c++) {
+                if (random.nextInt(5) != 0) {
+                    builder.addTransition(s, alphabet.charAt(c), random.nextInt(states));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Makes a random string of characters from the alphabet.
+     */
+    static String randomString(Random random, String alphabet, int length) {
+        char[] out = new char[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(out);
+    }
+}